@@ -0,0 +1,31 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Последовательность для id бронирований, которые Hibernate выделяет пачками по 50.
+ * Пачка заканчивается на полученном из последовательности значении, поэтому в базе
+ * с данными последовательность начинается на 50 выше наибольшего id. Java-миграция нужна,
+ * чтобы задать начало одинаково для PostgreSQL и H2: setval в H2 нет.
+ */
+public class V2__create_bookings_seq extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM bookings")) {
+                resultSet.next();
+                maxId = resultSet.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE bookings_seq START WITH " + (maxId + ALLOCATION_SIZE)
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+        }
+    }
+}
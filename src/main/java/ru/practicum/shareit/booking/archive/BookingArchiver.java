@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, закончившиеся больше archiveMonths месяцев назад, из bookings
+ * в bookings_archive. Бронирования в статусе WAITING не переносятся. Перенос идёт
+ * пачками, каждая пачка — отдельная транзакция (копирование и удаление вместе).
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int archiveMonths;
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking.archive.months:6}") int archiveMonths,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveMonths = archiveMonths;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Граница архива: все бронирования в архиве закончились раньше этого момента.
+     */
+    public LocalDateTime threshold(LocalDateTime time) {
+        return time.minusMonths(archiveMonths);
+    }
+
+    @Scheduled(cron = "${shareit.booking.archive.cron:0 0 3 * * *}")
+    public void archiveScheduled() {
+        archive(LocalDateTime.now());
+    }
+
+    public int archive(LocalDateTime time) {
+        LocalDateTime threshold = threshold(time);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(threshold));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, закончившихся до {}", total, threshold);
+        }
+        return total;
+    }
+
+    private int moveBatch(LocalDateTime threshold) {
+        List<Long> ids = bookingRepository.findIdsToArchive(threshold, BookingStatus.WAITING,
+                PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        bookingRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.async;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.enums.BookingRequestStatus;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченная очередь заявок на бронирование для асинхронного режима и состояния
+ * последних заявок. Заявки из очереди записывает {@link BookingWriter}.
+ * Ожидающие заявки не вытесняются: их не больше, чем помещается в очередь и в пачку на записи.
+ * Из завершённых хранятся последние maxRequests.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=BookingWriteQueue")
+public class BookingWriteQueue {
+
+    private final BlockingQueue<PendingBooking> queue;
+    private final Map<String, BookingRequestDto> pending = new HashMap<>();
+    private final Map<String, BookingRequestDto> finished;
+
+    private final AtomicLong acceptedTotal = new AtomicLong();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+
+    public BookingWriteQueue(@Value("${shareit.booking.async.queue-capacity:10000}") int capacity,
+                             @Value("${shareit.booking.async.max-requests:100000}") int maxRequests) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.finished = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BookingRequestDto> eldest) {
+                return size() > maxRequests;
+            }
+        };
+    }
+
+    public BookingRequestDto submit(Long userId, BookingCreateDto bookingCreateDto) {
+        String requestId = UUID.randomUUID().toString();
+        BookingRequestDto request = new BookingRequestDto(requestId, userId, BookingRequestStatus.PENDING, null, null);
+        synchronized (pending) {
+            pending.put(requestId, request);
+        }
+        if (!queue.offer(new PendingBooking(requestId, userId, bookingCreateDto))) {
+            synchronized (pending) {
+                pending.remove(requestId);
+            }
+            rejectedTotal.incrementAndGet();
+            throw new ServiceOverloadedException("Очередь бронирований переполнена, повторите запрос позже");
+        }
+        acceptedTotal.incrementAndGet();
+        return request;
+    }
+
+    public Optional<BookingRequestDto> get(String requestId) {
+        synchronized (pending) {
+            BookingRequestDto request = pending.get(requestId);
+            return Optional.ofNullable(request != null ? request : finished.get(requestId));
+        }
+    }
+
+    /**
+     * Ждёт первую заявку не дольше pollMillis, затем добирает пачку до maxSize,
+     * пока не истечёт flushMillis с момента появления первой.
+     */
+    List<PendingBooking> take(int maxSize, long pollMillis, long flushMillis) throws InterruptedException {
+        List<PendingBooking> batch = new ArrayList<>(maxSize);
+        PendingBooking first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        while (batch.size() < maxSize) {
+            queue.drainTo(batch, maxSize - batch.size());
+            long left = deadline - System.nanoTime();
+            if (batch.size() == maxSize || left <= 0) {
+                break;
+            }
+            PendingBooking next = queue.poll(left, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    List<PendingBooking> drain() {
+        List<PendingBooking> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        return rest;
+    }
+
+    void complete(PendingBooking pending, BookingDto booking) {
+        update(new BookingRequestDto(pending.getRequestId(), pending.getUserId(), BookingRequestStatus.CREATED,
+                booking, null));
+    }
+
+    void fail(PendingBooking pending, String error) {
+        update(new BookingRequestDto(pending.getRequestId(), pending.getUserId(), BookingRequestStatus.FAILED,
+                null, error));
+    }
+
+    private void update(BookingRequestDto request) {
+        synchronized (pending) {
+            if (pending.remove(request.getRequestId()) != null) {
+                finished.put(request.getRequestId(), request);
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Заявок в очереди на запись")
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @ManagedAttribute(description = "Ёмкость очереди")
+    public int getCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    @ManagedAttribute(description = "Сколько заявок принято с момента запуска")
+    public long getAcceptedTotal() {
+        return acceptedTotal.get();
+    }
+
+    @ManagedAttribute(description = "Сколько заявок отклонено из-за переполнения очереди")
+    public long getRejectedTotal() {
+        return rejectedTotal.get();
+    }
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Фоновая запись заявок из {@link BookingWriteQueue}: заявки собираются в пачку
+ * (не больше batchSize или сколько пришло за flushMillis) и записываются одной транзакцией.
+ * Все вещи пачки блокируются заранее по возрастанию полосы, как в пакетном создании.
+ * Если транзакция пачки откатилась, заявки каждого пользователя повторяются отдельно,
+ * чтобы ошибка одного не отменяла бронирования остальных.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=BookingWriter")
+public class BookingWriter {
+
+    private static final long POLL_MILLIS = 1000;
+
+    private final BookingWriteQueue queue;
+    private final BookingService bookingService;
+    private final ItemLockManager itemLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Thread thread;
+
+    private final AtomicLong batchesTotal = new AtomicLong();
+    private final AtomicLong writtenTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private volatile boolean running = true;
+
+    public BookingWriter(BookingWriteQueue queue,
+                         BookingService bookingService,
+                         ItemLockManager itemLockManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${shareit.booking.async.batch-size:100}") int batchSize,
+                         @Value("${shareit.booking.async.flush-interval-ms:50}") long flushMillis) {
+        this.queue = queue;
+        this.bookingService = bookingService;
+        this.itemLockManager = itemLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.thread = new Thread(this::run, "booking-writer");
+        this.thread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Останавливает поток и дописывает то, что осталось в очереди, чтобы принятые заявки не потерялись.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingBooking> rest = queue.drain();
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            write(rest.subList(from, Math.min(from + batchSize, rest.size())));
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<PendingBooking> batch = queue.take(batchSize, POLL_MILLIS, flushMillis);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ошибка фоновой записи бронирований", e);
+            }
+        }
+    }
+
+    void write(List<PendingBooking> batch) {
+        batchesTotal.incrementAndGet();
+        lastBatchSize.set(batch.size());
+        Map<Long, List<PendingBooking>> byUser = batch.stream()
+                .collect(Collectors.groupingBy(PendingBooking::getUserId, LinkedHashMap::new, Collectors.toList()));
+        try {
+            apply(transactionTemplate.execute(status -> writeGroups(batch, byUser.values())));
+        } catch (RuntimeException e) {
+            if (byUser.size() == 1) {
+                failAll(batch, e);
+                return;
+            }
+            log.warn("Пачка из {} заявок откатилась, записываем заявки пользователей по отдельности", batch.size());
+            for (List<PendingBooking> group : byUser.values()) {
+                try {
+                    apply(transactionTemplate.execute(status -> writeGroups(group, List.of(group))));
+                } catch (RuntimeException groupException) {
+                    failAll(group, groupException);
+                }
+            }
+        }
+    }
+
+    private List<Outcome> writeGroups(List<PendingBooking> batch, Iterable<List<PendingBooking>> groups) {
+        itemLockManager.lockForTransaction(batch.stream()
+                .map(pending -> pending.getBooking().getItemId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (List<PendingBooking> group : groups) {
+            List<BookingCreateDto> bookings = group.stream()
+                    .map(PendingBooking::getBooking)
+                    .collect(Collectors.toList());
+            List<BookingBatchResultDto> results = bookingService.createBookings(group.get(0).getUserId(), bookings);
+            for (BookingBatchResultDto result : results) {
+                outcomes.add(new Outcome(group.get(result.getIndex()), result));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Состояния заявок меняются только после фиксации транзакции.
+     */
+    private void apply(List<Outcome> outcomes) {
+        for (Outcome outcome : outcomes) {
+            if (outcome.result.getBooking() != null) {
+                queue.complete(outcome.pending, outcome.result.getBooking());
+                writtenTotal.incrementAndGet();
+            } else {
+                queue.fail(outcome.pending, outcome.result.getError());
+                failedTotal.incrementAndGet();
+            }
+        }
+    }
+
+    private void failAll(List<PendingBooking> group, RuntimeException e) {
+        log.warn("Не удалось записать {} заявок: {}", group.size(), e.getMessage());
+        for (PendingBooking pending : group) {
+            queue.fail(pending, e.getMessage());
+        }
+        failedTotal.addAndGet(group.size());
+    }
+
+    @ManagedAttribute(description = "Максимальный размер пачки")
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @ManagedAttribute(description = "Сколько ждать заполнения пачки после первой заявки, мс")
+    public long getFlushIntervalMillis() {
+        return flushMillis;
+    }
+
+    @ManagedAttribute(description = "Сколько пачек записано с момента запуска")
+    public long getBatchesTotal() {
+        return batchesTotal.get();
+    }
+
+    @ManagedAttribute(description = "Сколько бронирований создано фоновой записью")
+    public long getWrittenTotal() {
+        return writtenTotal.get();
+    }
+
+    @ManagedAttribute(description = "Сколько заявок завершилось ошибкой")
+    public long getFailedTotal() {
+        return failedTotal.get();
+    }
+
+    @ManagedAttribute(description = "Размер последней пачки")
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    private static class Outcome {
+
+        private final PendingBooking pending;
+        private final BookingBatchResultDto result;
+
+        Outcome(PendingBooking pending, BookingBatchResultDto result) {
+            this.pending = pending;
+            this.result = result;
+        }
+    }
+}
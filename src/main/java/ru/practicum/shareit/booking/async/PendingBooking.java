@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.async;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+class PendingBooking {
+
+    String requestId;
+
+    Long userId;
+
+    BookingCreateDto booking;
+}
@@ -1,15 +1,31 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
+import ru.practicum.shareit.booking.enums.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.validation.GroupValidation.Create;
 
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Validated
@@ -18,6 +34,8 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @GetMapping("{bookingId}")
@@ -27,23 +45,61 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookingsCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestParam(name = "from", required = false, defaultValue = "0")
-                                                   @PositiveOrZero Integer from,
-                                                   @RequestParam(name = "size", required = false, defaultValue = "500")
-                                                   @Positive Integer size) {
-        return bookingService.getBookingsCurrentUser(userId, state, from, size);
+    public ResponseEntity<?> getBookingsCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                    @RequestParam(name = "from", required = false, defaultValue = "0")
+                                                    @PositiveOrZero Integer from,
+                                                    @RequestParam(name = "size", required = false, defaultValue = "500")
+                                                    @Positive Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                                    @RequestParam(name = "view", defaultValue = "full") String view) {
+        BookingView bookingView = BookingView.from(view);
+        return toResponse(bookingService.getBookingsCurrentUser(userId, state, from, size, cursor), bookingView);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsAllItemCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                          @RequestParam(defaultValue = "ALL") String state,
-                                                          @RequestParam(name = "from", required = false, defaultValue = "0")
-                                                          @PositiveOrZero Integer from,
-                                                          @RequestParam(name = "size", required = false, defaultValue = "500")
-                                                          @Positive Integer size) {
-        return bookingService.getBookingsAllItemCurrentUser(userId, state, from, size);
+    public ResponseEntity<?> getBookingsAllItemCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam(name = "from", required = false, defaultValue = "0")
+                                                           @PositiveOrZero Integer from,
+                                                           @RequestParam(name = "size", required = false, defaultValue = "500")
+                                                           @Positive Integer size,
+                                                           @RequestParam(name = "cursor", required = false) String cursor,
+                                                           @RequestParam(name = "view", defaultValue = "full") String view) {
+        BookingView bookingView = BookingView.from(view);
+        return toResponse(bookingService.getBookingsAllItemCurrentUser(userId, state, from, size, cursor), bookingView);
+    }
+
+    @GetMapping("/counts")
+    public BookingCountsDto countBookingsCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return bookingService.countBookingsCurrentUser(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingCountsDto countBookingsAllItemCurrentUser(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return bookingService.countBookingsAllItemCurrentUser(userId);
+    }
+
+    /**
+     * Занятость вещей владельца за период по дням (bucket=day) или неделям (bucket=week).
+     */
+    @GetMapping("/owner/occupancy")
+    public OccupancyDto getOccupancy(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                     @RequestParam(name = "from")
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                     @RequestParam(name = "to")
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                     @RequestParam(name = "bucket", defaultValue = "day") String bucket) {
+        return bookingService.getOccupancy(userId, from, to, bucket);
+    }
+
+    /**
+     * Поток событий о создании, подтверждении и отклонении бронирований,
+     * в которых пользователь является владельцем вещи или арендатором.
+     */
+    @GetMapping(path = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return bookingService.subscribe(userId);
     }
 
     @PostMapping
@@ -52,6 +108,33 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingCreateDto);
     }
 
+    /**
+     * Асинхронный режим по заголовку Prefer: respond-async. Заявка ставится в очередь,
+     * клиент получает 202 и адрес, по которому видно её состояние.
+     */
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<BookingRequestDto> submitBooking(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                           @Validated(Create.class) @RequestBody
+                                                           BookingCreateDto bookingCreateDto) {
+        BookingRequestDto request = bookingService.submitBooking(userId, bookingCreateDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/bookings/requests/" + request.getRequestId()))
+                .body(request);
+    }
+
+    @GetMapping("/requests/{requestId}")
+    public BookingRequestDto getBookingRequest(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                               @PathVariable("requestId") String requestId) {
+        return bookingService.getBookingRequest(userId, requestId);
+    }
+
+    @PostMapping("batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                      @RequestBody @NotEmpty @Size(max = 500)
+                                                      List<BookingCreateDto> bookingCreateDtos) {
+        return bookingService.createBookings(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("{bookingId}")
     public BookingDto approve(@Validated @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
                               @PathVariable("bookingId") @Positive Long bookingId,
@@ -59,4 +142,21 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approve);
     }
 
+    @PatchMapping("bulk")
+    public List<BookingApprovalResultDto> approveAll(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                     @RequestParam("approved") Boolean approve,
+                                                     @RequestBody @NotEmpty @Size(max = 500) List<Long> bookingIds) {
+        return bookingService.approveBookings(userId, bookingIds, approve);
+    }
+
+    private ResponseEntity<?> toResponse(BookingPageDto page, BookingView view) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        if (view == BookingView.COMPACT) {
+            return response.body(BookingMapper.toBookingCompactListDto(page.getBookings()));
+        }
+        return response.body(page.getBookings());
+    }
 }
\ No newline at end of file
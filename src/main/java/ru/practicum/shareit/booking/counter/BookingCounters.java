@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventListener;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.StatusCount;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Счётчики бронирований пользователя по статусам, отдельно для арендатора и владельца.
+ * Загружаются одним group by при первом обращении и дальше меняются по событиям бронирований.
+ * Состояния по времени (CURRENT, FUTURE) считаются запросом по небольшому диапазону,
+ * PAST — как остаток от общего числа. В памяти держатся счётчики не больше maxUsers пар
+ * пользователь-роль, давно не запрошенные вытесняются и при следующем обращении загружаются заново.
+ */
+@Component
+public class BookingCounters implements BookingEventListener {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final Map<Key, Map<BookingStatus, Long>> counters;
+    /**
+     * Число событий по ключам, счётчики которых сейчас загружаются; запись живёт только на время загрузки.
+     */
+    private final Map<Key, Load> loads = new HashMap<>();
+
+    public BookingCounters(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           @Value("${shareit.booking.counters.max-users:10000}") int maxUsers) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.counters = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Map<BookingStatus, Long>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public BookingCountsDto count(BookingRole role, Long userId, LocalDateTime time) {
+        Map<BookingStatus, Long> byStatus = byStatus(new Key(role, userId));
+        long all = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        long current;
+        long future;
+        if (role == BookingRole.OWNER) {
+            current = bookingRepository.countCurrentByOwner(userId, time);
+            future = bookingRepository.countFutureByOwner(userId, time);
+        } else {
+            current = bookingRepository.countCurrentByBooker(userId, time);
+            future = bookingRepository.countFutureByBooker(userId, time);
+        }
+        return BookingCountsDto.builder()
+                .all(all)
+                .current(current)
+                .past(all - current - future)
+                .future(future)
+                .waiting(byStatus.getOrDefault(BookingStatus.WAITING, 0L))
+                .rejected(byStatus.getOrDefault(BookingStatus.REJECTED, 0L))
+                .build();
+    }
+
+    @Override
+    public void onBookingEvent(BookingEventDto event) {
+        apply(new Key(BookingRole.BOOKER, event.getBookerId()), event);
+        apply(new Key(BookingRole.OWNER, event.getOwnerId()), event);
+    }
+
+    /**
+     * Загруженные счётчики сохраняются, только если за время загрузки по пользователю
+     * не пришло ни одного события: иначе неизвестно, учтено ли оно запросом.
+     */
+    private Map<BookingStatus, Long> byStatus(Key key) {
+        Load load;
+        long events;
+        synchronized (counters) {
+            Map<BookingStatus, Long> cached = counters.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.loaders++;
+            events = load.events;
+        }
+        Map<BookingStatus, Long> loaded = null;
+        try {
+            loaded = load(key);
+            return loaded;
+        } finally {
+            synchronized (counters) {
+                if (loaded != null && load.events == events) {
+                    counters.putIfAbsent(key, loaded);
+                }
+                if (--load.loaders == 0) {
+                    loads.remove(key);
+                }
+            }
+        }
+    }
+
+    private void apply(Key key, BookingEventDto event) {
+        synchronized (counters) {
+            counters.computeIfPresent(key, (k, current) -> withEvent(current, event));
+            Load load = loads.get(key);
+            if (load != null) {
+                load.events++;
+            }
+        }
+    }
+
+    private Map<BookingStatus, Long> withEvent(Map<BookingStatus, Long> current, BookingEventDto event) {
+        Map<BookingStatus, Long> updated = new EnumMap<>(BookingStatus.class);
+        updated.putAll(current);
+        if (event.getType() != BookingEventType.CREATED) {
+            updated.merge(BookingStatus.WAITING, -1L, Long::sum);
+        }
+        updated.merge(event.getStatus(), 1L, Long::sum);
+        return Collections.unmodifiableMap(updated);
+    }
+
+    private Map<BookingStatus, Long> load(Key key) {
+        List<StatusCount> live;
+        List<StatusCount> archived;
+        if (key.getRole() == BookingRole.OWNER) {
+            live = bookingRepository.countByOwnerGroupByStatus(key.getUserId());
+            archived = archivedBookingRepository.countByOwnerGroupByStatus(key.getUserId());
+        } else {
+            live = bookingRepository.countByBookerGroupByStatus(key.getUserId());
+            archived = archivedBookingRepository.countByBookerGroupByStatus(key.getUserId());
+        }
+        Map<BookingStatus, Long> loaded = new EnumMap<>(BookingStatus.class);
+        live.forEach(count -> loaded.merge(count.getStatus(), count.getTotal(), Long::sum));
+        archived.forEach(count -> loaded.merge(count.getStatus(), count.getTotal(), Long::sum));
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+
+        private final BookingRole role;
+
+        private final Long userId;
+    }
+
+    private static class Load {
+
+        private int loaders;
+
+        private long events;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.detail;
+
+import java.util.Collection;
+
+/**
+ * Рассылает сброс карточек бронирований другим узлам. Получив сообщение, узел вызывает
+ * {@link BookingDetailCache#evictLocal}. Вызывается после фиксации транзакции, поэтому
+ * другие узлы после сброса читают уже новые данные.
+ */
+public interface BookingCacheInvalidationBus {
+
+    void publish(Collection<Long> bookingIds);
+}
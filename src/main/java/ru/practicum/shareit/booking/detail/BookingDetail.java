@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.detail;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Карточка бронирования и id тех, кому её можно показывать: владельца вещи и арендатора.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingDetail {
+
+    BookingDto booking;
+
+    Long ownerId;
+
+    Long bookerId;
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.detail;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш карточек бронирований для GET /bookings/{id}: не больше maxEntries записей, давно не читанные
+ * вытесняются первыми, каждая живёт ttl. Смена статуса сбрасывает запись сразу и ещё раз после
+ * завершения транзакции, после фиксации сброс рассылается другим узлам. Изменения вещи или
+ * пользователя в карточке не отслеживаются и видны не позже чем через ttl.
+ */
+@ManagedResource(objectName = "ru.practicum.shareit:type=BookingDetailCache")
+public class BookingDetailCache {
+
+    private final BookingCacheInvalidationBus invalidationBus;
+    private final Map<Long, CachedDetail> entries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BookingDetailCache(BookingCacheInvalidationBus invalidationBus, int maxEntries, Duration ttl,
+                              Clock clock) {
+        this.invalidationBus = invalidationBus;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedDetail> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает карточку из кэша или загружает её через loader. Загруженное не попадает в кэш,
+     * если за время загрузки был сброс: иначе можно сохранить статус до подтверждения.
+     */
+    public BookingDetail get(Long bookingId, Function<Long, BookingDetail> loader) {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            CachedDetail cached = entries.get(bookingId);
+            if (cached != null && cached.expiresAt.isAfter(now)) {
+                hits.incrementAndGet();
+                return cached.detail;
+            }
+            if (cached != null) {
+                entries.remove(bookingId);
+            }
+        }
+        misses.incrementAndGet();
+        long loadedVersion = version.get();
+        BookingDetail detail = loader.apply(bookingId);
+        synchronized (entries) {
+            if (loadedVersion == version.get()) {
+                entries.put(bookingId, new CachedDetail(detail, now.plus(ttl)));
+            }
+        }
+        return detail;
+    }
+
+    public void evict(Long bookingId) {
+        evict(List.of(bookingId));
+    }
+
+    public void evict(Collection<Long> bookingIds) {
+        evictLocal(bookingIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationBus.publish(bookingIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictLocal(bookingIds);
+                if (status == STATUS_COMMITTED) {
+                    invalidationBus.publish(bookingIds);
+                }
+            }
+        });
+    }
+
+    /**
+     * Сбрасывает записи только на этом узле; вызывается и при получении рассылки от других узлов.
+     */
+    public void evictLocal(Collection<Long> bookingIds) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            for (Long bookingId : bookingIds) {
+                entries.remove(bookingId);
+            }
+        }
+        invalidations.addAndGet(bookingIds.size());
+    }
+
+    @ManagedOperation(description = "Очистить кэш на этом узле")
+    public void clear() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "Записей в кэше")
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @ManagedAttribute(description = "Сколько чтений обслужено из кэша")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Сколько чтений ушло в базу")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Доля чтений из кэша")
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @ManagedAttribute(description = "Сколько записей вытеснено из-за размера")
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @ManagedAttribute(description = "Сколько записей сброшено при изменении бронирований")
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    private static class CachedDetail {
+
+        private final BookingDetail detail;
+        private final Instant expiresAt;
+
+        CachedDetail(BookingDetail detail, Instant expiresAt) {
+            this.detail = detail;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.detail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Кэш карточек бронирований. Для нескольких узлов достаточно объявить свой бин
+ * {@link BookingCacheInvalidationBus}, например поверх очереди сообщений.
+ */
+@Configuration
+public class BookingDetailCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BookingCacheInvalidationBus bookingCacheInvalidationBus() {
+        return new LocalBookingCacheInvalidationBus();
+    }
+
+    @Bean
+    public BookingDetailCache bookingDetailCache(BookingCacheInvalidationBus bookingCacheInvalidationBus,
+                                                 @Value("${shareit.booking.detail-cache.max-entries:10000}")
+                                                 int maxEntries,
+                                                 @Value("${shareit.booking.detail-cache.ttl-seconds:60}")
+                                                 long ttlSeconds) {
+        return new BookingDetailCache(bookingCacheInvalidationBus, maxEntries, Duration.ofSeconds(ttlSeconds),
+                Clock.systemDefaultZone());
+    }
+}
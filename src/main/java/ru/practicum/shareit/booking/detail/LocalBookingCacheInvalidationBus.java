@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.detail;
+
+import java.util.Collection;
+
+/**
+ * Вариант для одного узла: рассылать некому, локальный кэш сбрасывается самим {@link BookingDetailCache}.
+ */
+public class LocalBookingCacheInvalidationBus implements BookingCacheInvalidationBus {
+
+    @Override
+    public void publish(Collection<Long> bookingIds) {
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+/**
+ * Результат подтверждения или отклонения одного бронирования из списка.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingApprovalResultDto {
+
+    Long bookingId;
+
+    BookingStatus status;
+
+    String error;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Результат создания одного бронирования из пакета: либо созданное бронирование, либо текст ошибки.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingBatchResultDto {
+
+    int index;
+
+    BookingDto booking;
+
+    String error;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Компактный список бронирований: каждая вещь и каждый пользователь встречаются один раз,
+ * бронирования ссылаются на них по id.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingCompactListDto {
+
+    List<BookingCompactDto> bookings;
+
+    Collection<ItemDto> items;
+
+    Collection<UserDto> users;
+}
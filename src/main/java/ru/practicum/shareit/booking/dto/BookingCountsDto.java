@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Количество бронирований пользователя по состояниям из параметра state.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingCountsDto {
+
+    long all;
+
+    long current;
+
+    long past;
+
+    long future;
+
+    long waiting;
+
+    long rejected;
+}
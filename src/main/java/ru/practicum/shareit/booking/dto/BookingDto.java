@@ -35,4 +35,14 @@ public class BookingDto {
     UserDto booker;
 
     BookingStatus status;
+
+    /**
+     * Конструктор для выборки проекцией: вещь и арендатор передаются плоскими столбцами.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingRequestStatus;
+
+/**
+ * Состояние заявки на бронирование, принятой в асинхронном режиме.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingRequestDto {
+
+    String requestId;
+
+    @JsonIgnore
+    Long userId;
+
+    BookingRequestStatus status;
+
+    BookingDto booking;
+
+    String error;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.occupancy.OccupancyBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Загрузка вещей владельца по интервалам. Интервалы общие для всех вещей:
+ * i-й элемент массивов вещи относится к i-му элементу buckets.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OccupancyDto {
+
+    LocalDateTime from;
+
+    LocalDateTime to;
+
+    OccupancyBucket bucket;
+
+    List<LocalDateTime> buckets;
+
+    List<ItemOccupancyDto> items;
+}
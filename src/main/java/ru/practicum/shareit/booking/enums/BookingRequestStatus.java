@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.enums;
+
+public enum BookingRequestStatus {
+    PENDING,
+    CREATED,
+    FAILED
+}
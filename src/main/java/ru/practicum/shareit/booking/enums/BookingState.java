@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.enums;
+
+import ru.practicum.shareit.exception.UnsupportedStateException;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return value;
+            }
+        }
+        throw new UnsupportedStateException(String.format("Unknown state: %s", state));
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.enums;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Вид списка бронирований: FULL — вещь и арендатор внутри каждого бронирования,
+ * COMPACT — только их id и отдельные списки вещей и пользователей без повторов.
+ */
+public enum BookingView {
+    FULL,
+    COMPACT;
+
+    public static BookingView from(String view) {
+        for (BookingView value : values()) {
+            if (value.name().equalsIgnoreCase(view)) {
+                return value;
+            }
+        }
+        throw new ValidationException(String.format("Неизвестный вид списка: %s", view));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingEventDto {
+
+    BookingEventType type;
+
+    Long bookingId;
+
+    Long itemId;
+
+    Long ownerId;
+
+    Long bookerId;
+
+    BookingStatus status;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    public static BookingEventDto of(BookingEventType type, Booking booking) {
+        return BookingEventDto.builder()
+                .type(type)
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+}
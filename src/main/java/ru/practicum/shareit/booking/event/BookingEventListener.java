@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.event;
+
+/**
+ * Получатель событий бронирований внутри приложения. Вызывается после фиксации транзакции.
+ */
+public interface BookingEventListener {
+
+    void onBookingEvent(BookingEventDto event);
+}
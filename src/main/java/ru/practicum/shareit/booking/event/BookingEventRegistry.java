@@ -0,0 +1,182 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.SubscriptionLimitException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реестр SSE-подписок на изменения бронирований. События также передаются
+ * слушателям внутри приложения. Число подписок ограничено в целом
+ * и на пользователя; у каждой подписки своя ограниченная очередь. Клиент, который
+ * не успевает читать события, отключается и должен переподключиться.
+ */
+@Slf4j
+@Component
+public class BookingEventRegistry {
+
+    private final List<BookingEventListener> listeners;
+    private final Map<Long, Set<BookingSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final ExecutorService sender;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerUser;
+    private final int queueCapacity;
+    private final long timeout;
+
+    public BookingEventRegistry(List<BookingEventListener> listeners,
+                                @Value("${shareit.events.max-subscribers:1000}") int maxSubscribers,
+                                @Value("${shareit.events.max-subscribers-per-user:5}") int maxSubscribersPerUser,
+                                @Value("${shareit.events.queue-capacity:100}") int queueCapacity,
+                                @Value("${shareit.events.timeout-ms:1800000}") long timeout,
+                                @Value("${shareit.events.sender-threads:4}") int senderThreads) {
+        this.listeners = listeners;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.sender = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (total.incrementAndGet() > maxSubscribers) {
+            total.decrementAndGet();
+            throw new SubscriptionLimitException("Превышено число подписок на события");
+        }
+        SseEmitter emitter = createEmitter(timeout);
+        BookingSubscriber subscriber = new BookingSubscriber(userId, emitter, queueCapacity);
+        Set<BookingSubscriber> userSubscribers = subscribers.compute(userId, (id, current) -> {
+            Set<BookingSubscriber> result = current != null ? current : new CopyOnWriteArraySet<>();
+            if (result.size() < maxSubscribersPerUser) {
+                result.add(subscriber);
+            }
+            return result;
+        });
+        if (!userSubscribers.contains(subscriber)) {
+            total.decrementAndGet();
+            throw new SubscriptionLimitException(
+                    String.format("Превышено число подписок на события для пользователя с id = %d", userId));
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Отправляет событие владельцу вещи и арендатору после фиксации текущей транзакции.
+     * Вне транзакции событие отправляется сразу.
+     */
+    public void publishAfterCommit(BookingEventDto event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    public void publish(BookingEventDto event) {
+        for (BookingEventListener listener : listeners) {
+            try {
+                listener.onBookingEvent(event);
+            } catch (RuntimeException e) {
+                log.error("Ошибка обработки события бронирования с id = {}", event.getBookingId(), e);
+            }
+        }
+        send(event.getOwnerId(), event);
+        if (!event.getBookerId().equals(event.getOwnerId())) {
+            send(event.getBookerId(), event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<BookingSubscriber> userSubscribers : subscribers.values()) {
+            for (BookingSubscriber subscriber : userSubscribers) {
+                subscriber.requestHeartbeat();
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    public int size() {
+        return total.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private void send(Long userId, BookingEventDto event) {
+        Set<BookingSubscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (BookingSubscriber subscriber : userSubscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(BookingSubscriber subscriber, BookingEventDto event) {
+        if (!subscriber.offer(event)) {
+            log.warn("Очередь событий пользователя с id = {} переполнена, подписка закрыта", subscriber.getUserId());
+            remove(subscriber);
+            subscriber.getEmitter().complete();
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    /**
+     * Любая ошибка отправки закрывает подписку, иначе клиент остался бы в реестре
+     * с незавершённым SseEmitter, которому ничего больше не отправляется.
+     */
+    private void scheduleDrain(BookingSubscriber subscriber) {
+        if (!subscriber.startDrain()) {
+            return;
+        }
+        sender.execute(() -> {
+            try {
+                if (subscriber.drain()) {
+                    scheduleDrain(subscriber);
+                }
+            } catch (IOException | RuntimeException e) {
+                remove(subscriber);
+                subscriber.getEmitter().completeWithError(e);
+            }
+        });
+    }
+
+    private void remove(BookingSubscriber subscriber) {
+        Set<BookingSubscriber> userSubscribers = subscribers.get(subscriber.getUserId());
+        if (userSubscribers != null && userSubscribers.remove(subscriber)) {
+            total.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.getUserId(), (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписка одного клиента. События складываются в ограниченную очередь и отправляются
+ * одним потоком за раз, поэтому запись в SseEmitter никогда не идёт параллельно.
+ * В очереди лежат сами события: SseEventBuilder меняется при сборке, поэтому он создаётся
+ * заново для каждой отправки. Heartbeat не занимает очередь, несколько запросов склеиваются в один.
+ */
+class BookingSubscriber {
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final BlockingQueue<BookingEventDto> queue;
+    private final AtomicBoolean heartbeat = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    BookingSubscriber(Long userId, SseEmitter emitter, int queueCapacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * @return false, если очередь клиента переполнена
+     */
+    boolean offer(BookingEventDto event) {
+        return queue.offer(event);
+    }
+
+    void requestHeartbeat() {
+        heartbeat.set(true);
+    }
+
+    /**
+     * Захватывает право на отправку; возвращает false, если отправлять нечего или очередь уже разбирается.
+     */
+    boolean startDrain() {
+        return hasPending() && draining.compareAndSet(false, true);
+    }
+
+    /**
+     * Отправляет накопленные события. После освобождения флага очередь проверяется
+     * ещё раз, чтобы не потерять событие, добавленное во время отправки.
+     *
+     * @return true, если в очереди остались события и нужно запланировать отправку снова
+     */
+    boolean drain() throws IOException {
+        try {
+            if (heartbeat.getAndSet(false)) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            BookingEventDto event;
+            while ((event = queue.poll()) != null) {
+                emitter.send(SseEmitter.event()
+                        .name(event.getType().name())
+                        .data(event));
+            }
+        } finally {
+            draining.set(false);
+        }
+        return hasPending();
+    }
+
+    private boolean hasPending() {
+        return !queue.isEmpty() || heartbeat.get();
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.detail.BookingDetailCache;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventRegistry;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Переводит в EXPIRED бронирования, которые так и остались в WAITING после наступления start.
+ * Работает пачками с паузой между ними. Пачка делится по полосам блокировок вещей, и каждая
+ * часть — короткая транзакция с одним UPDATE под блокировкой одной полосы, поэтому проход
+ * не останавливает создание и подтверждение бронирований остальных вещей. Счётчики доступны по JMX.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=BookingExpirySweeper")
+public class BookingExpirySweeper {
+
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockManager itemLockManager;
+    private final BookingEventRegistry bookingEventRegistry;
+    private final BookingDetailCache bookingDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    private final AtomicLong expiredTotal = new AtomicLong();
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpirySweeper(BookingRepository bookingRepository,
+                                BookingIntervalIndex bookingIntervalIndex,
+                                ItemLockManager itemLockManager,
+                                BookingEventRegistry bookingEventRegistry,
+                                BookingDetailCache bookingDetailCache,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                                @Value("${shareit.booking.expiry.pause-ms:100}") long pauseMillis) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemLockManager = itemLockManager;
+        this.bookingEventRegistry = bookingEventRegistry;
+        this.bookingDetailCache = bookingDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval-ms:60000}")
+    public void sweepScheduled() {
+        sweep(LocalDateTime.now());
+    }
+
+    public int sweep(LocalDateTime time) {
+        AtomicInteger expired = new AtomicInteger();
+        List<Long> ids;
+        do {
+            ids = bookingRepository.findIdsByStatusAndStartBefore(BookingStatus.WAITING, time,
+                    PageRequest.of(0, batchSize));
+            for (List<Long> stripeIds : groupByStripe(ids).values()) {
+                transactionTemplate.executeWithoutResult(status -> expireStripe(stripeIds, expired));
+            }
+        } while (ids.size() == batchSize && pause());
+        int total = expired.get();
+        expiredTotal.addAndGet(total);
+        lastRunExpired.set(total);
+        lagSeconds.set(bookingRepository.findOldestStart(BookingStatus.WAITING, time)
+                .map(start -> Duration.between(start, time).getSeconds())
+                .orElse(0L));
+        if (total > 0) {
+            log.info("Просрочено {} бронирований в статусе WAITING", total);
+        }
+        return total;
+    }
+
+    @ManagedAttribute(description = "Сколько бронирований переведено в EXPIRED с момента запуска")
+    public long getExpiredTotal() {
+        return expiredTotal.get();
+    }
+
+    @ManagedAttribute(description = "Сколько бронирований переведено в EXPIRED за последний проход")
+    public long getLastRunExpired() {
+        return lastRunExpired.get();
+    }
+
+    @ManagedAttribute(description = "Возраст самого старого просроченного WAITING после последнего прохода, секунд")
+    public long getLagSeconds() {
+        return lagSeconds.get();
+    }
+
+    private Map<Integer, List<Long>> groupByStripe(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return bookingRepository.findAllWithItemByIdIn(ids).stream()
+                .collect(Collectors.groupingBy(booking -> itemLockManager.stripeIndex(booking.getItem().getId()),
+                        TreeMap::new, Collectors.mapping(Booking::getId, Collectors.toList())));
+    }
+
+    /**
+     * Бронирования одной полосы; подтверждённые параллельно к этому моменту пропускаются.
+     */
+    private void expireStripe(List<Long> ids, AtomicInteger expired) {
+        itemLockManager.lockForTransaction(bookingRepository.findItemIdsByIdIn(ids));
+        List<Booking> bookings = bookingRepository.findAllWithItemByIdIn(ids).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
+                .collect(Collectors.toList());
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> expiredIds = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        bookingRepository.updateStatus(expiredIds, BookingStatus.WAITING, BookingStatus.EXPIRED);
+        bookingDetailCache.evict(expiredIds);
+        expired.addAndGet(bookings.size());
+        for (Booking booking : bookings) {
+            booking.setStatus(BookingStatus.EXPIRED);
+            bookingIntervalIndex.update(booking);
+            bookingEventRegistry.publishAfterCommit(BookingEventDto.of(BookingEventType.EXPIRED, booking));
+        }
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingInterval {
+
+    Long bookingId;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    BookingStatus status;
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+
+    public BookingInterval withStatus(BookingStatus newStatus) {
+        return new BookingInterval(bookingId, start, end, newStatus);
+    }
+}
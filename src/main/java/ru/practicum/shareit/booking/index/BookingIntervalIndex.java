@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс занятых интервалов по вещам: бронирования в статусах WAITING и APPROVED,
+ * которые ещё не закончились. Интервалы вещи загружаются из таблицы bookings
+ * при первом обращении и дальше обновляются сервисом бронирований. В памяти держится
+ * не больше maxItems вещей, давно не запрошенные вытесняются и при следующем обращении
+ * загружаются заново.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervals;
+    private final AtomicLong version = new AtomicLong();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return !findOverlaps(itemId, start, end).isEmpty();
+    }
+
+    /**
+     * Активные бронирования вещи, пересекающие [start, end), в порядке начала.
+     */
+    public List<BookingInterval> findOverlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals itemIntervals = forItem(itemId);
+        itemIntervals.prune(LocalDateTime.now());
+        return itemIntervals.findOverlaps(start, end);
+    }
+
+    /**
+     * Загружает одним запросом интервалы тех вещей, которых ещё нет в индексе. Вызывается под
+     * блокировками этих вещей: их бронирования за время загрузки не меняются, поэтому загруженное
+     * кладётся в индекс без проверки версии. После этого проверки пакета не ходят в базу и не
+     * сбрасывают туда уже сохранённые бронирования перед каждым запросом.
+     */
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing;
+        synchronized (intervals) {
+            missing = itemIds.stream()
+                    .filter(itemId -> !intervals.containsKey(itemId))
+                    .collect(Collectors.toList());
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<BookingInterval>> loaded = bookingRepository
+                .findIntervalsByItemIdIn(missing, ACTIVE_STATUSES, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(ItemBookingInterval::getItemId,
+                        Collectors.mapping(ItemBookingInterval::toInterval, Collectors.toList())));
+        synchronized (intervals) {
+            for (Long itemId : missing) {
+                intervals.putIfAbsent(itemId, new ItemIntervals(loaded.getOrDefault(itemId, List.of())));
+            }
+        }
+    }
+
+    /**
+     * Применяет изменение бронирования сразу, чтобы его видели проверки в той же транзакции.
+     * После фиксации изменение повторяется на записи вещи, которая к тому времени в индексе:
+     * её могли вытеснить и загрузить заново до фиксации. После отката прежний интервал возвращается.
+     */
+    public void update(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingInterval previous = forItem(itemId).get(booking.getId());
+        BookingInterval current = ACTIVE_STATUSES.contains(booking.getStatus())
+                ? new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus())
+                : null;
+        apply(itemId, booking.getId(), current);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    apply(itemId, booking.getId(), status == STATUS_COMMITTED ? current : previous);
+                }
+            });
+        }
+    }
+
+    private void apply(Long itemId, Long bookingId, BookingInterval interval) {
+        ItemIntervals itemIntervals;
+        synchronized (intervals) {
+            itemIntervals = intervals.get(itemId);
+        }
+        if (itemIntervals == null) {
+            return;
+        }
+        if (interval != null) {
+            itemIntervals.put(interval);
+        } else {
+            itemIntervals.remove(bookingId);
+        }
+    }
+
+    /**
+     * Загрузка идёт без блокировки индекса. Загруженное не попадает в индекс, если за это время
+     * завершилась транзакция с изменением бронирований: чтение могло её не увидеть.
+     */
+    private ItemIntervals forItem(Long itemId) {
+        synchronized (intervals) {
+            ItemIntervals itemIntervals = intervals.get(itemId);
+            if (itemIntervals != null) {
+                return itemIntervals;
+            }
+        }
+        long loadedVersion = version.get();
+        ItemIntervals loaded = new ItemIntervals(
+                bookingRepository.findIntervalsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now()));
+        synchronized (intervals) {
+            ItemIntervals itemIntervals = intervals.get(itemId);
+            if (itemIntervals != null) {
+                return itemIntervals;
+            }
+            if (loadedVersion == version.get()) {
+                intervals.put(itemId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    int size() {
+        synchronized (intervals) {
+            return intervals.size();
+        }
+    }
+}
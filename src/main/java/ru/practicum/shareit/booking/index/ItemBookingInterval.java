@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал бронирования вместе с вещью — для загрузки интервалов нескольких вещей одним запросом.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemBookingInterval {
+
+    Long itemId;
+
+    Long bookingId;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    BookingStatus status;
+
+    public BookingInterval toInterval() {
+        return new BookingInterval(bookingId, start, end, status);
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Интервалы активных бронирований одной вещи: сбалансированное (AVL) дерево по началу,
+ * в каждом узле хранится наибольший конец в его поддереве. Поиск пересечений с [start, end)
+ * пропускает поддеревья, которые кончаются не позже start, и всё, что начинается не раньше end,
+ * поэтому стоит O(log n + k) независимо от длины уже удалённых интервалов.
+ * Закончившиеся интервалы снимаются по отдельному множеству, упорядоченному по концу.
+ */
+class ItemIntervals {
+
+    private static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+    private static final Comparator<BookingInterval> BY_END = Comparator
+            .comparing(BookingInterval::getEnd)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private final NavigableSet<BookingInterval> byEnd = new TreeSet<>(BY_END);
+    private final Map<Long, BookingInterval> byId = new HashMap<>();
+    private Node root;
+
+    ItemIntervals(List<BookingInterval> intervals) {
+        intervals.forEach(this::put);
+    }
+
+    synchronized List<BookingInterval> findOverlaps(LocalDateTime start, LocalDateTime end) {
+        List<BookingInterval> overlaps = new ArrayList<>();
+        if (start.isBefore(end)) {
+            collect(root, start, end, overlaps);
+        }
+        return overlaps;
+    }
+
+    synchronized BookingInterval get(Long bookingId) {
+        return byId.get(bookingId);
+    }
+
+    synchronized void put(BookingInterval interval) {
+        remove(interval.getBookingId());
+        root = insert(root, interval);
+        byEnd.add(interval);
+        byId.put(interval.getBookingId(), interval);
+    }
+
+    synchronized void remove(Long bookingId) {
+        BookingInterval interval = byId.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+            byEnd.remove(interval);
+        }
+    }
+
+    synchronized void prune(LocalDateTime time) {
+        while (!byEnd.isEmpty() && !byEnd.first().getEnd().isAfter(time)) {
+            BookingInterval interval = byEnd.pollFirst();
+            byId.remove(interval.getBookingId());
+            root = delete(root, interval);
+        }
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Обход по возрастанию начала, поэтому пересечения возвращаются в порядке начала.
+     */
+    private static void collect(Node node, LocalDateTime start, LocalDateTime end, List<BookingInterval> out) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+        collect(node.left, start, end, out);
+        if (!node.interval.getStart().isBefore(end)) {
+            return;
+        }
+        if (node.interval.overlaps(start, end)) {
+            out.add(node.interval);
+        }
+        collect(node.right, start, end, out);
+    }
+
+    private static Node insert(Node node, BookingInterval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (BY_START.compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = BY_START.compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = delete(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.interval);
+            replacement.right = delete(node.right, successor.interval);
+            replacement.left = node.left;
+            node = replacement;
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        node.update();
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+
+        private final BookingInterval interval;
+        private Node left;
+        private Node right;
+        private int height;
+        private LocalDateTime maxEnd;
+
+        Node(BookingInterval interval) {
+            this.interval = interval;
+            update();
+        }
+
+        void update() {
+            height = Math.max(height(left), height(right)) + 1;
+            maxEnd = interval.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по id вещи: изменения бронирований одной вещи выполняются
+ * последовательно, бронирования разных вещей (попавших в разные полосы) — параллельно.
+ */
+@Component
+public class ItemLockManager {
+
+    private final ReentrantLock[] stripes;
+
+    public ItemLockManager(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Количество полос блокировки должно быть положительным");
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Блокирует вещь до завершения текущей транзакции, чтобы изменения были
+     * зафиксированы раньше, чем их начнёт проверять следующий поток.
+     */
+    public void lockForTransaction(Long itemId) {
+        lockStripeForTransaction(stripeIndex(itemId));
+    }
+
+    /**
+     * Блокирует несколько вещей до завершения транзакции. Полосы захватываются
+     * в порядке возрастания номера, поэтому пересекающиеся пакеты не взаимоблокируются.
+     */
+    public void lockForTransaction(Collection<Long> itemIds) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long itemId : itemIds) {
+            indexes.add(stripeIndex(itemId));
+        }
+        for (int index : indexes) {
+            lockStripeForTransaction(index);
+        }
+    }
+
+    private void lockStripeForTransaction(int index) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        ReentrantLock lock = stripes[index];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Номер полосы вещи: вещи с одинаковым номером блокируются одной блокировкой.
+     */
+    public int stripeIndex(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), stripes.length);
+    }
+}
@@ -3,15 +3,25 @@ package ru.practicum.shareit.booking.mapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class BookingMapper {
@@ -38,6 +48,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static Booking toBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .start(archivedBooking.getStart())
+                .end(archivedBooking.getEnd())
+                .item(archivedBooking.getItem())
+                .booker(archivedBooking.getBooker())
+                .status(archivedBooking.getStatus())
+                .build();
+    }
+
     public static BookingItemDto toBookingItemDto(Booking booking) {
         return BookingItemDto.builder()
                 .id(booking.getId())
@@ -46,4 +67,17 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingCompactListDto toBookingCompactListDto(List<BookingDto> bookings) {
+        List<BookingCompactDto> compact = new ArrayList<>(bookings.size());
+        Map<Long, ItemDto> items = new LinkedHashMap<>();
+        Map<Long, UserDto> users = new LinkedHashMap<>();
+        for (BookingDto booking : bookings) {
+            items.putIfAbsent(booking.getItem().getId(), booking.getItem());
+            users.putIfAbsent(booking.getBooker().getId(), booking.getBooker());
+            compact.add(new BookingCompactDto(booking.getId(), booking.getStart(), booking.getEnd(),
+                    booking.getStatus(), booking.getItem().getId(), booking.getBooker().getId()));
+        }
+        return new BookingCompactListDto(compact, items.values(), users.values());
+    }
 }
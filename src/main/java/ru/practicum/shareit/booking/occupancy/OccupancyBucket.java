@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.occupancy;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum OccupancyBucket {
+    DAY,
+    WEEK;
+
+    public static OccupancyBucket from(String bucket) {
+        for (OccupancyBucket value : values()) {
+            if (value.name().equalsIgnoreCase(bucket)) {
+                return value;
+            }
+        }
+        throw new ValidationException(String.format("Неизвестный интервал: %s", bucket));
+    }
+
+    /**
+     * Начало интервала, которому принадлежит момент time: полночь для дня, полночь понедельника для недели.
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return this == DAY ? day : day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public LocalDateTime next(LocalDateTime start) {
+        return this == DAY ? start.plusDays(1) : start.plusWeeks(1);
+    }
+}
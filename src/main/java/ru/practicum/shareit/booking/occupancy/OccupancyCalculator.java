@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.occupancy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.ItemOccupancyDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Считает занятость вещей владельца по дням или неделям. Подтверждённые бронирования
+ * читаются одним потоковым запросом в примитивные массивы, затем раскладываются по вещам
+ * и суммируются параллельно: каждая вещь пишет только в свою строку матрицы, поэтому
+ * потокам не нужна синхронизация. Вызывать нужно внутри транзакции.
+ */
+@Component
+public class OccupancyCalculator {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingArchiver bookingArchiver;
+    private final int maxBuckets;
+
+    public OccupancyCalculator(BookingRepository bookingRepository,
+                               ArchivedBookingRepository archivedBookingRepository,
+                               ItemRepository itemRepository,
+                               BookingArchiver bookingArchiver,
+                               @Value("${shareit.booking.occupancy.max-buckets:366}") int maxBuckets) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.itemRepository = itemRepository;
+        this.bookingArchiver = bookingArchiver;
+        this.maxBuckets = maxBuckets;
+    }
+
+    public OccupancyDto calculate(Long ownerId, LocalDateTime from, LocalDateTime to, OccupancyBucket bucket) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Неправильный интервал");
+        }
+        List<LocalDateTime> starts = bucketStarts(from, to, bucket);
+        long[] bounds = new long[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            bounds[i] = seconds(starts.get(i));
+        }
+        bounds[starts.size()] = seconds(to);
+
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+        Map<Long, Integer> positions = new HashMap<>(itemIds.size() * 2);
+        for (int i = 0; i < itemIds.size(); i++) {
+            positions.put(itemIds.get(i), i);
+        }
+        Spans spans = new Spans(bounds[0], bounds[starts.size()]);
+        try (Stream<OccupancySpan> stream = bookingRepository.streamOwnerSpans(ownerId, BookingStatus.APPROVED,
+                from, to)) {
+            stream.forEach(span -> spans.add(positions.get(span.getItemId()), span));
+        }
+        if (from.isBefore(bookingArchiver.threshold(LocalDateTime.now()))) {
+            try (Stream<OccupancySpan> stream = archivedBookingRepository.streamOwnerSpans(ownerId,
+                    BookingStatus.APPROVED, from, to)) {
+                stream.forEach(span -> spans.add(positions.get(span.getItemId()), span));
+            }
+        }
+
+        long[] booked = spans.aggregate(itemIds.size(), bounds);
+        int buckets = starts.size();
+        List<ItemOccupancyDto> items = new ArrayList<>(itemIds.size());
+        for (int item = 0; item < itemIds.size(); item++) {
+            double[] hours = new double[buckets];
+            double[] utilization = new double[buckets];
+            for (int b = 0; b < buckets; b++) {
+                long seconds = booked[item * buckets + b];
+                hours[b] = round(seconds / 3600.0);
+                utilization[b] = round(seconds * 100.0 / (bounds[b + 1] - bounds[b]));
+            }
+            items.add(new ItemOccupancyDto(itemIds.get(item), hours, utilization));
+        }
+        return new OccupancyDto(from, to, bucket, starts, items);
+    }
+
+    /**
+     * Начала интервалов: первый обрезан по from, последний заканчивается в to.
+     */
+    private List<LocalDateTime> bucketStarts(LocalDateTime from, LocalDateTime to, OccupancyBucket bucket) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        starts.add(from);
+        for (LocalDateTime start = bucket.next(bucket.floor(from)); start.isBefore(to); start = bucket.next(start)) {
+            if (starts.size() == maxBuckets) {
+                throw new ValidationException(String.format("Период не должен превышать %d интервалов", maxBuckets));
+            }
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Промежутки бронирований в виде параллельных массивов (вещь, начало, конец),
+     * уже обрезанные по границам периода.
+     */
+    private static class Spans {
+
+        private final long from;
+        private final long to;
+        private int[] items = new int[256];
+        private long[] starts = new long[256];
+        private long[] ends = new long[256];
+        private int size;
+
+        Spans(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        void add(Integer item, OccupancySpan span) {
+            if (item == null) {
+                return;
+            }
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            items[size] = item;
+            starts[size] = Math.max(seconds(span.getStart()), from);
+            ends[size] = Math.min(seconds(span.getEnd()), to);
+            size++;
+        }
+
+        /**
+         * Возвращает матрицу [вещь][интервал] с суммой занятых секунд, развёрнутую в одномерный массив.
+         */
+        long[] aggregate(int itemCount, long[] bounds) {
+            int buckets = bounds.length - 1;
+            int[] offsets = new int[itemCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[items[i] + 1]++;
+            }
+            for (int item = 0; item < itemCount; item++) {
+                offsets[item + 1] += offsets[item];
+            }
+            int[] order = new int[size];
+            int[] cursor = Arrays.copyOf(offsets, itemCount);
+            for (int i = 0; i < size; i++) {
+                order[cursor[items[i]]++] = i;
+            }
+
+            long[] booked = new long[itemCount * buckets];
+            IntStream.range(0, itemCount).parallel().forEach(item -> {
+                int row = item * buckets;
+                for (int k = offsets[item]; k < offsets[item + 1]; k++) {
+                    int span = order[k];
+                    long start = starts[span];
+                    long end = ends[span];
+                    int b = Arrays.binarySearch(bounds, start);
+                    b = b >= 0 ? b : -b - 2;
+                    for (; b < buckets && bounds[b] < end; b++) {
+                        booked[row + b] += Math.min(end, bounds[b + 1]) - Math.max(start, bounds[b]);
+                    }
+                }
+            });
+            return booked;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.occupancy;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Промежуток, на который вещь занята подтверждённым бронированием.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OccupancySpan {
+
+    Long itemId;
+
+    LocalDateTime start;
+
+    LocalDateTime end;
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.occupancy.OccupancySpan;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>, ArchivedBookingSearchRepository {
+
+    List<ArchivedBooking> findByItem_IdAndStatus(Long itemId, BookingStatus status);
+
+    @Query("select b from ArchivedBooking b where b.item.id in ?1 and b.status = ?2 and b.start < ?3 and b.end = " +
+            "(select max(l.end) from ArchivedBooking l where l.item.id = b.item.id and l.status = ?2 and l.start < ?3)")
+    List<ArchivedBooking> findLastBookings(Collection<Long> itemIds, BookingStatus status, LocalDateTime time);
+
+    @Query("select b.status as status, count(b) as total from ArchivedBooking b where b.booker.id = ?1 " +
+            "group by b.status")
+    List<StatusCount> countByBookerGroupByStatus(Long bookerId);
+
+    @Query("select b.status as status, count(b) as total from ArchivedBooking b where b.item.owner.id = ?1 " +
+            "group by b.status")
+    List<StatusCount> countByOwnerGroupByStatus(Long ownerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.booking.occupancy.OccupancySpan(b.item.id, b.start, b.end) " +
+            "from ArchivedBooking b where b.item.owner.id = ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    Stream<OccupancySpan> streamOwnerSpans(Long ownerId, BookingStatus status, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+            "select id, start_date, end_date, item_id, booker_id, status from bookings where id in ?1",
+            nativeQuery = true)
+    int copyFromBookings(Collection<Long> bookingIds);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.util.List;
+
+public interface ArchivedBookingSearchRepository {
+
+    /**
+     * То же, что {@link BookingSearchRepository#findByState(BookingQuery)}, но по архиву.
+     */
+    List<ArchivedBooking> findByState(BookingQuery query);
+
+    /**
+     * То же, что {@link BookingSearchRepository#findDtoByState(BookingQuery)}, но по архиву.
+     */
+    List<BookingDto> findDtoByState(BookingQuery query);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+class ArchivedBookingSearchRepositoryImpl implements ArchivedBookingSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ArchivedBooking> findByState(BookingQuery query) {
+        return BookingCriteria.findByState(entityManager, ArchivedBooking.class, query);
+    }
+
+    @Override
+    public List<BookingDto> findDtoByState(BookingQuery query) {
+        return BookingCriteria.findDtoByState(entityManager, ArchivedBooking.class, query);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Выборка бронирований по состоянию через Criteria API. Общая для таблицы bookings
+ * и архива: обе сущности имеют одинаковые атрибуты.
+ */
+class BookingCriteria {
+
+    private BookingCriteria() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> findByState(EntityManager entityManager, Class<T> entity, BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteria = cb.createQuery(entity);
+        Root<T> booking = criteria.from(entity);
+        Join<T, Item> item = (Join<T, Item>) booking.<T, Item>fetch("item", JoinType.INNER);
+        item.fetch("owner", JoinType.INNER);
+        booking.fetch("booker", JoinType.INNER);
+
+        criteria.select(booking)
+                .where(predicates(cb, booking, item, query))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return page(entityManager.createQuery(criteria), query);
+    }
+
+    /**
+     * То же, что {@link #findByState}, но строки сразу собираются в {@link BookingDto}
+     * конструктором из запроса: сущности не попадают в контекст персистентности.
+     */
+    static <T> List<BookingDto> findDtoByState(EntityManager entityManager, Class<T> entity, BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> criteria = cb.createQuery(BookingDto.class);
+        Root<T> booking = criteria.from(entity);
+        Join<T, Item> item = booking.join("item", JoinType.INNER);
+        Join<T, User> booker = booking.join("booker", JoinType.INNER);
+
+        criteria.select(cb.construct(BookingDto.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        item.get("request").get("id"),
+                        booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates(cb, booking, item, query))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return page(entityManager.createQuery(criteria), query);
+    }
+
+    private static <T> List<T> page(TypedQuery<T> typedQuery, BookingQuery query) {
+        return typedQuery
+                .setFirstResult(query.getAfter() == null ? query.getOffset() : 0)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<?> booking, Join<?, Item> item,
+                                          BookingQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getRole() == BookingRole.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), query.getUserId()));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), query.getUserId()));
+        }
+        predicates.addAll(statePredicates(cb, booking, query.getState(), query.getTime()));
+        if (query.getAfter() != null) {
+            predicates.add(afterPredicate(cb, booking, query.getAfter()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static Predicate afterPredicate(CriteriaBuilder cb, Root<?> booking, BookingCursor after) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+        return cb.or(cb.lessThan(start, after.getStart()),
+                cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId())));
+    }
+
+    private static List<Predicate> statePredicates(CriteriaBuilder cb, Root<?> booking, BookingState state,
+                                                   LocalDateTime time) {
+        List<Predicate> predicates = new ArrayList<>();
+        switch (state) {
+            case PAST:
+                predicates.add(cb.lessThan(booking.<LocalDateTime>get("end"), time));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(booking.<LocalDateTime>get("start"), time));
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(booking.<LocalDateTime>get("start"), time));
+                predicates.add(cb.greaterThan(booking.<LocalDateTime>get("end"), time));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        return predicates;
+    }
+}
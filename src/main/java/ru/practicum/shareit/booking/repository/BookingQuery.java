@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки бронирований. Если задан after, выборка продолжается после
+ * этой позиции (keyset), иначе пропускается offset строк.
+ */
+@Getter
+@Builder(toBuilder = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingQuery {
+
+    BookingRole role;
+
+    Long userId;
+
+    BookingState state;
+
+    LocalDateTime time;
+
+    BookingCursor after;
+
+    int offset;
+
+    int limit;
+}
@@ -2,42 +2,92 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemBookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.booking.occupancy.OccupancySpan;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findByBookerId(Long userId, Pageable page);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndBefore(Long userId, LocalDateTime start,
-                                                             LocalDateTime end, Pageable page);
+    List<Booking> findBookingByItem_IdAndStatusOrderByEndAsc(Long itemId, BookingStatus status);
 
-    List<Booking> findByBookerIdAndStartAfter(Long userId, LocalDateTime time, Pageable page);
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Optional<Long> findItemIdById(Long bookingId);
 
-    List<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
-                                                               LocalDateTime end, Pageable page);
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = ?2 and b.start < ?3 and b.end = " +
+            "(select max(l.end) from Booking l where l.item.id = b.item.id and l.status = ?2 and l.start < ?3)")
+    List<Booking> findLastBookings(Collection<Long> itemIds, BookingStatus status, LocalDateTime time);
 
-    List<Booking> findByBookerIdAndStatus(Long userId, BookingStatus status, Pageable page);
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = ?2 and b.start > ?3 and b.start = " +
+            "(select min(n.start) from Booking n where n.item.id = b.item.id and n.status = ?2 and n.start > ?3)")
+    List<Booking> findNextBookings(Collection<Long> itemIds, BookingStatus status, LocalDateTime time);
 
-    List<Booking> findAllByItem_Owner_Id(Long userId, Pageable page);
+    @Query("select distinct b.item.id from Booking b where b.id in ?1")
+    List<Long> findItemIdsByIdIn(Collection<Long> bookingIds);
 
-    List<Booking> findAllByItem_Owner_IdAndEndIsBefore(Long userId, LocalDateTime time, Pageable page);
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where b.id in ?1")
+    List<Booking> findAllWithItemByIdIn(Collection<Long> bookingIds);
 
-    List<Booking> findAllByItem_Owner_IdAndStartIsAfter(Long userId, LocalDateTime time, Pageable page);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 where b.id in ?1 and b.status = ?2")
+    int updateStatus(Collection<Long> bookingIds, BookingStatus from, BookingStatus to);
 
-    List<Booking> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
-                                                                      LocalDateTime end, Pageable page);
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.start, b.end, b.status) " +
+            "from Booking b where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingInterval> findIntervalsByItemId(Long itemId, Collection<BookingStatus> statuses, LocalDateTime time);
 
-    List<Booking> findAllByItem_Owner_IdAndStatus(Long userId, BookingStatus status, Pageable page);
+    @Query("select new ru.practicum.shareit.booking.index.ItemBookingInterval(b.item.id, b.id, b.start, b.end, " +
+            "b.status) from Booking b where b.item.id in ?1 and b.status in ?2 and b.end > ?3")
+    List<ItemBookingInterval> findIntervalsByItemIdIn(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                                      LocalDateTime time);
 
-    List<Booking> findBookingsByItem_Id(Long itemId);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.booking.occupancy.OccupancySpan(b.item.id, b.start, b.end) " +
+            "from Booking b where b.item.owner.id = ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    Stream<OccupancySpan> streamOwnerSpans(Long ownerId, BookingStatus status, LocalDateTime from, LocalDateTime to);
 
-    List<Booking> findBookingsByItemIn(List<Item> items);
+    @Query("select b.id from Booking b where b.end < ?1 and b.status <> ?2 order by b.id")
+    List<Long> findIdsToArchive(LocalDateTime threshold, BookingStatus excluded, Pageable pageable);
 
-    List<Booking> findBookingByItem_IdAndStatusOrderByEndAsc(Long itemId, BookingStatus status);
+    @Modifying
+    @Query("delete from Booking b where b.id in ?1")
+    int deleteByIdIn(Collection<Long> bookingIds);
+
+    @Query("select b.id from Booking b where b.status = ?1 and b.start < ?2 order by b.start")
+    List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime time, Pageable pageable);
+
+    @Query("select min(b.start) from Booking b where b.status = ?1 and b.start < ?2")
+    Optional<LocalDateTime> findOldestStart(BookingStatus status, LocalDateTime time);
+
+    @Query("select b.status as status, count(b) as total from Booking b where b.booker.id = ?1 group by b.status")
+    List<StatusCount> countByBookerGroupByStatus(Long bookerId);
+
+    @Query("select b.status as status, count(b) as total from Booking b where b.item.owner.id = ?1 " +
+            "group by b.status")
+    List<StatusCount> countByOwnerGroupByStatus(Long ownerId);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2")
+    long countCurrentByBooker(Long bookerId, LocalDateTime time);
+
+    @Query("select count(b) from Booking b where b.booker.id = ?1 and b.start > ?2")
+    long countFutureByBooker(Long bookerId, LocalDateTime time);
+
+    @Query("select count(b) from Booking b where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2")
+    long countCurrentByOwner(Long ownerId, LocalDateTime time);
 
+    @Query("select count(b) from Booking b where b.item.owner.id = ?1 and b.start > ?2")
+    long countFutureByOwner(Long ownerId, LocalDateTime time);
 }
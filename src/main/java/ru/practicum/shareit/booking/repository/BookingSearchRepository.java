@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingSearchRepository {
+
+    /**
+     * Бронирования пользователя в роли арендатора или владельца вещи, отобранные по состоянию
+     * и отсортированные по (start desc, id desc). Вещь, её владелец и арендатор загружаются тем же запросом.
+     */
+    List<Booking> findByState(BookingQuery query);
+
+    /**
+     * Те же бронирования, что и {@link #findByState(BookingQuery)}, но собранные сразу в DTO
+     * без загрузки сущностей. Используется списками только для чтения.
+     */
+    List<BookingDto> findDtoByState(BookingQuery query);
+}
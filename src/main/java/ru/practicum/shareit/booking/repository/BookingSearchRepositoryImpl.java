@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+class BookingSearchRepositoryImpl implements BookingSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findByState(BookingQuery query) {
+        return BookingCriteria.findByState(entityManager, Booking.class, query);
+    }
+
+    @Override
+    public List<BookingDto> findDtoByState(BookingQuery query) {
+        return BookingCriteria.findDtoByState(entityManager, Booking.class, query);
+    }
+}
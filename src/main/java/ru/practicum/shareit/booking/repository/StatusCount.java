@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+public interface StatusCount {
+
+    BookingStatus getStatus();
+
+    Long getTotal();
+}
@@ -1,19 +1,49 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
 
-    List<BookingDto> getBookingsCurrentUser(Long userId, String state, Integer from, Integer size);
+    BookingPageDto getBookingsCurrentUser(Long userId, String state, Integer from, Integer size, String cursor);
 
-    List<BookingDto> getBookingsAllItemCurrentUser(Long userId, String state, Integer from, Integer size);
+    BookingPageDto getBookingsAllItemCurrentUser(Long userId, String state, Integer from, Integer size,
+                                                 String cursor);
+
+    /**
+     * Первая страница бронирований вещей владельца без проверки пользователя: её уже сделал вызывающий.
+     */
+    List<BookingDto> getOwnerBookings(Long ownerId, String state, Integer size);
+
+    BookingCountsDto countBookingsCurrentUser(Long userId);
+
+    BookingCountsDto countBookingsAllItemCurrentUser(Long userId);
+
+    OccupancyDto getOccupancy(Long userId, LocalDateTime from, LocalDateTime to, String bucket);
 
     BookingDto getBookingById(Long userId, Long bookingId);
 
     BookingDto createBooking(Long userId, BookingCreateDto bookingCreateDto);
 
+    BookingRequestDto submitBooking(Long userId, BookingCreateDto bookingCreateDto);
+
+    BookingRequestDto getBookingRequest(Long userId, String requestId);
+
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingDto approveBooking(Long userId, Long bookingId, Boolean approve);
+
+    List<BookingApprovalResultDto> approveBookings(Long userId, List<Long> bookingIds, Boolean approve);
+
+    SseEmitter subscribe(Long userId);
 }
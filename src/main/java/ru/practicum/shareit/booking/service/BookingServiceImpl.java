@@ -2,19 +2,40 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.async.BookingWriteQueue;
+import ru.practicum.shareit.booking.counter.BookingCounters;
+import ru.practicum.shareit.booking.detail.BookingDetail;
+import ru.practicum.shareit.booking.detail.BookingDetailCache;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventRegistry;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.occupancy.OccupancyBucket;
+import ru.practicum.shareit.booking.occupancy.OccupancyCalculator;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryCache;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
-import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -23,8 +44,15 @@ import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.validation.DateValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,84 +61,67 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final Set<BookingState> ARCHIVED_STATES = EnumSet.of(BookingState.ALL, BookingState.PAST,
+            BookingState.REJECTED);
+    private static final Comparator<BookingDto> NEWEST_FIRST = Comparator.comparing(BookingDto::getStart)
+            .thenComparing(BookingDto::getId)
+            .reversed();
+
     private final BookingRepository bookingRepository;
     private final ItemService itemService;
     private final UserService userService;
     private final DateValidator dateValidator;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockManager itemLockManager;
+    private final BookingEventRegistry bookingEventRegistry;
+    private final ItemBookingSummaryCache itemBookingSummaryCache;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchiver bookingArchiver;
+    private final BookingCounters bookingCounters;
+    private final OccupancyCalculator occupancyCalculator;
+    private final BookingWriteQueue bookingWriteQueue;
+    private final BookingDetailCache bookingDetailCache;
+
+    @Override
+    public BookingPageDto getBookingsCurrentUser(Long userId, String state, Integer from, Integer size,
+                                                 String cursor) {
+        return getBookings(BookingRole.BOOKER, userId, state, from, size, cursor);
+    }
 
     @Override
-    public List<BookingDto> getBookingsCurrentUser(Long userId, String state, Integer from, Integer size) {
+    public BookingPageDto getBookingsAllItemCurrentUser(Long userId, String state, Integer from, Integer size,
+                                                        String cursor) {
+        return getBookings(BookingRole.OWNER, userId, state, from, size, cursor);
+    }
+
+    @Override
+    public List<BookingDto> getOwnerBookings(Long ownerId, String state, Integer size) {
+        return findBookings(BookingRole.OWNER, ownerId, state, 0, size, null).getBookings();
+    }
+
+    @Override
+    public BookingCountsDto countBookingsCurrentUser(Long userId) {
         userService.validateUserById(userId);
-        List<Booking> bookings;
-        LocalDateTime time = LocalDateTime.now();
-        Pageable page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        switch (state.toUpperCase()) {
-            case "ALL":
-                bookings = bookingRepository.findByBookerId(userId, page);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndBefore(userId, time, time, page);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartAfter(userId, time, page);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, time, time, page);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, page);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                throw new UnsupportedStateException(String.format("Unknown state: %s", state));
-        }
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return bookingCounters.count(BookingRole.BOOKER, userId, LocalDateTime.now());
+    }
+
+    @Override
+    public BookingCountsDto countBookingsAllItemCurrentUser(Long userId) {
+        userService.validateUserById(userId);
+        return bookingCounters.count(BookingRole.OWNER, userId, LocalDateTime.now());
     }
 
     @Override
-    public List<BookingDto> getBookingsAllItemCurrentUser(Long userId, String state, Integer from, Integer size) {
-       userService.validateUserById(userId);
-       List<Booking> bookings;
-       LocalDateTime time = LocalDateTime.now();
-       Pageable page = PageRequest.of(from / size, size, Sort.by("start").descending());
-       switch (state.toUpperCase()) {
-           case "ALL":
-               bookings = bookingRepository.findAllByItem_Owner_Id(userId, page);
-               break;
-           case "PAST":
-               bookings = bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(userId, time, page);
-               break;
-           case "FUTURE":
-               bookings = bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(userId, time, page);
-               break;
-           case "CURRENT":
-               bookings = bookingRepository.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(userId, time, time, page);
-               break;
-           case "WAITING":
-               bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, page);
-               break;
-           case "REJECTED":
-               bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED, page);
-               break;
-           default:
-               throw new UnsupportedStateException(String.format("Unknown state: %s", state));
-       }
-       return bookings.stream()
-               .map(BookingMapper::toBookingDto)
-               .collect(Collectors.toList());
+    public OccupancyDto getOccupancy(Long userId, LocalDateTime from, LocalDateTime to, String bucket) {
+        userService.validateUserById(userId);
+        return occupancyCalculator.calculate(userId, from, to, OccupancyBucket.from(bucket));
     }
 
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Бронирование с id = %d не найдено", bookingId)));
-        if (Objects.equals(booking.getBooker().getId(), userId) ||
-                Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            return BookingMapper.toBookingDto(booking);
+        BookingDetail detail = bookingDetailCache.get(bookingId, this::loadBookingDetail);
+        if (Objects.equals(detail.getBookerId(), userId) || Objects.equals(detail.getOwnerId(), userId)) {
+            return detail.getBooking();
         }
         throw new ObjectNotFoundException(String.format("Пользователя с id = %d не существует", userId));
     }
@@ -118,36 +129,239 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingDto createBooking(Long userId, BookingCreateDto bookingCreateDto) {
+        itemLockManager.lockForTransaction(bookingCreateDto.getItemId());
         User user = userService.getById(userId);
         Item item = itemService.getById(bookingCreateDto.getItemId());
-        if (Objects.equals(item.getOwner(), user)) {
-            throw new ObjectNotFoundException(String.format("Вещь с id = %d недоступна для бронирования", item.getId()));
-        }
-        if (!item.getAvailable()) {
-            throw new ValidationException(String.format("Вещь с id = %d недоступна", item.getId()));
-        }
+        return BookingMapper.toBookingDto(saveBooking(user, item, bookingCreateDto));
+    }
+
+    /**
+     * Принимает заявку в асинхронном режиме: проверяются только даты, без обращения к базе.
+     * Пользователь, вещь и пересечения проверяются при записи, результат доступен по requestId.
+     */
+    @Override
+    public BookingRequestDto submitBooking(Long userId, BookingCreateDto bookingCreateDto) {
         if (!dateValidator.isCorrectDate(bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
             throw new ValidationException("Неправильная дата");
         }
-        bookingCreateDto.setBookerId(user.getId());
-        bookingCreateDto.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toBookingDto(bookingRepository.save(BookingMapper
-                .toCreateBooking(bookingCreateDto, user, item)));
+        return bookingWriteQueue.submit(userId, bookingCreateDto);
+    }
+
+    @Override
+    public BookingRequestDto getBookingRequest(Long userId, String requestId) {
+        return bookingWriteQueue.get(requestId)
+                .filter(request -> Objects.equals(request.getUserId(), userId))
+                .orElseThrow(() -> new ObjectNotFoundException(String.format("Заявка %s не найдена", requestId)));
+    }
+
+    /**
+     * Создаёт пакет бронирований в одной транзакции. Пользователь, все вещи и их занятые интервалы
+     * загружаются до первой вставки, поэтому вставки уходят в базу пачками при фиксации транзакции.
+     * Ошибочные записи не прерывают пакет, а возвращаются с текстом ошибки.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        Set<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        itemLockManager.lockForTransaction(itemIds);
+        User user = userService.getById(userId);
+        Map<Long, Item> items = itemService.getByIds(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        bookingIntervalIndex.preload(items.keySet());
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingCreateDtos.size());
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            BookingCreateDto bookingCreateDto = bookingCreateDtos.get(i);
+            try {
+                Item item = items.get(bookingCreateDto.getItemId());
+                if (item == null) {
+                    throw new ObjectNotFoundException(String.format("Вещь с id = %d не найдена",
+                            bookingCreateDto.getItemId()));
+                }
+                Booking booking = saveBooking(user, item, bookingCreateDto);
+                results.add(new BookingBatchResultDto(i, BookingMapper.toBookingDto(booking), null));
+            } catch (ValidationException | ObjectNotFoundException e) {
+                results.add(new BookingBatchResultDto(i, null, e.getMessage()));
+            }
+        }
+        log.info("Создано {} из {} бронирований пакета", results.stream()
+                .filter(result -> result.getBooking() != null)
+                .count(), bookingCreateDtos.size());
+        return results;
     }
 
     @Transactional
     @Override
     public BookingDto approveBooking(Long userId, Long bookingId, Boolean approve) {
+        Long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(() ->
+                new ObjectNotFoundException(String.format("Бронирование с id = %d не найдено", bookingId)));
+        itemLockManager.lockForTransaction(itemId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Бронирование с id = %d не найдено", bookingId)));
         User user = userService.getById(userId);
         if (!Objects.equals(booking.getItem().getOwner(), user)) {
             throw new ObjectNotFoundException("Вы не владеете этой вещью");
         }
+        checkWaiting(booking);
+        booking.setStatus(approve ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        booking = bookingRepository.save(booking);
+        bookingIntervalIndex.update(booking);
+        bookingDetailCache.evict(bookingId);
+        if (approve) {
+            itemBookingSummaryCache.evict(itemId);
+        }
+        bookingEventRegistry.publishAfterCommit(BookingEventDto.of(approvalEventType(booking), booking));
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    /**
+     * Подтверждает или отклоняет список бронирований: владение проверяется одним запросом
+     * с join вещи, статусы меняются одним UPDATE. Результат возвращается для каждого id.
+     */
+    @Transactional
+    @Override
+    public List<BookingApprovalResultDto> approveBookings(Long userId, List<Long> bookingIds, Boolean approve) {
+        userService.validateUserById(userId);
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        itemLockManager.lockForTransaction(bookingRepository.findItemIdsByIdIn(ids));
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        BookingStatus status = approve ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<BookingApprovalResultDto> results = new ArrayList<>(ids.size());
+        List<Booking> approved = new ArrayList<>();
+        for (Long bookingId : ids) {
+            try {
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    throw new ObjectNotFoundException(String.format("Бронирование с id = %d не найдено", bookingId));
+                }
+                if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
+                    throw new ObjectNotFoundException("Вы не владеете этой вещью");
+                }
+                checkWaiting(booking);
+                approved.add(booking);
+                results.add(new BookingApprovalResultDto(bookingId, status, null));
+            } catch (ValidationException | ObjectNotFoundException e) {
+                results.add(new BookingApprovalResultDto(bookingId, null, e.getMessage()));
+            }
+        }
+        if (!approved.isEmpty()) {
+            List<Long> approvedIds = approved.stream().map(Booking::getId).collect(Collectors.toList());
+            bookingRepository.updateStatus(approvedIds, BookingStatus.WAITING, status);
+            bookingDetailCache.evict(approvedIds);
+            for (Booking booking : approved) {
+                booking.setStatus(status);
+                bookingIntervalIndex.update(booking);
+                if (approve) {
+                    itemBookingSummaryCache.evict(booking.getItem().getId());
+                }
+                bookingEventRegistry.publishAfterCommit(BookingEventDto.of(approvalEventType(booking), booking));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        userService.validateUserById(userId);
+        return bookingEventRegistry.subscribe(userId);
+    }
+
+    private BookingDetail loadBookingDetail(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(BookingMapper::toBooking))
+                .orElseThrow(() ->
+                        new ObjectNotFoundException(String.format("Бронирование с id = %d не найдено", bookingId)));
+        return new BookingDetail(BookingMapper.toBookingDto(booking), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId());
+    }
+
+    private void checkWaiting(Booking booking) {
         if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new ValidationException(String.format("Бронирование с id = %d недоступно", bookingId));
+            throw new ValidationException(String.format("Бронирование с id = %d недоступно", booking.getId()));
         }
-        booking.setStatus(approve ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+    }
+
+    private Booking saveBooking(User user, Item item, BookingCreateDto bookingCreateDto) {
+        if (Objects.equals(item.getOwner(), user)) {
+            throw new ObjectNotFoundException(String.format("Вещь с id = %d недоступна для бронирования", item.getId()));
+        }
+        if (!item.getAvailable()) {
+            throw new ValidationException(String.format("Вещь с id = %d недоступна", item.getId()));
+        }
+        if (bookingCreateDto.getStart() == null || bookingCreateDto.getEnd() == null ||
+                !dateValidator.isCorrectDate(bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
+            throw new ValidationException("Неправильная дата");
+        }
+        if (bookingIntervalIndex.hasOverlap(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
+            throw new ValidationException(String.format("Вещь с id = %d уже забронирована на эти даты", item.getId()));
+        }
+        bookingCreateDto.setBookerId(user.getId());
+        bookingCreateDto.setStatus(BookingStatus.WAITING);
+        Booking booking = bookingRepository.save(BookingMapper.toCreateBooking(bookingCreateDto, user, item));
+        bookingIntervalIndex.update(booking);
+        bookingEventRegistry.publishAfterCommit(BookingEventDto.of(BookingEventType.CREATED, booking));
+        return booking;
+    }
+
+    private BookingEventType approvalEventType(Booking booking) {
+        return booking.getStatus() == BookingStatus.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+    }
+
+    private BookingPageDto getBookings(BookingRole role, Long userId, String state, Integer from, Integer size,
+                                       String cursor) {
+        userService.validateUserById(userId);
+        return findBookings(role, userId, state, from, size, cursor);
+    }
+
+    private BookingPageDto findBookings(BookingRole role, Long userId, String state, Integer from, Integer size,
+                                        String cursor) {
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.from(state))
+                .time(LocalDateTime.now())
+                .after(cursor != null ? BookingCursor.decode(cursor) : null)
+                .offset(from)
+                .limit(size)
+                .build();
+        List<BookingDto> bookings = bookingRepository.findDtoByState(query);
+        if (reachesArchive(query, bookings)) {
+            bookings = findWithArchive(query, bookings);
+        }
+        String next = bookings.size() == size ? BookingCursor.of(bookings.get(bookings.size() - 1)).encode() : null;
+        return new BookingPageDto(bookings, next);
+    }
+
+    /**
+     * В архиве лежат только бронирования, закончившиеся до границы архива, поэтому он нужен,
+     * лишь если страница из bookings неполная или её последняя строка началась раньше границы.
+     */
+    private boolean reachesArchive(BookingQuery query, List<BookingDto> found) {
+        if (!ARCHIVED_STATES.contains(query.getState())) {
+            return false;
+        }
+        if (found.size() < query.getLimit()) {
+            return true;
+        }
+        LocalDateTime threshold = bookingArchiver.threshold(query.getTime());
+        return found.get(found.size() - 1).getStart().isBefore(threshold);
+    }
+
+    private List<BookingDto> findWithArchive(BookingQuery query, List<BookingDto> found) {
+        int skip = query.getAfter() == null ? query.getOffset() : 0;
+        BookingQuery window = query.toBuilder()
+                .offset(0)
+                .limit(skip + query.getLimit())
+                .build();
+        List<BookingDto> merged = new ArrayList<>(skip == 0 ? found : bookingRepository.findDtoByState(window));
+        merged.addAll(archivedBookingRepository.findDtoByState(window));
+        return merged.stream()
+                .sorted(NEWEST_FIRST)
+                .skip(skip)
+                .limit(query.getLimit())
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и ближайшее подтверждённые бронирования вещи. Значение актуально,
+ * пока не наступило начало ближайшего бронирования (validUntil).
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemBookingSummary {
+
+    BookingItemDto lastBooking;
+
+    BookingItemDto nextBooking;
+
+    LocalDateTime validUntil;
+
+    public boolean isValidAt(LocalDateTime time) {
+        return validUntil == null || time.isBefore(validUntil);
+    }
+}
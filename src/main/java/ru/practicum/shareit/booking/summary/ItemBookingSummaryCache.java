@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш последнего и ближайшего подтверждённых бронирований по вещам.
+ * Промахи загружаются двумя запросами на весь список вещей; архив читается только для вещей
+ * без последнего бронирования в bookings. Запись вещи сбрасывается
+ * при подтверждении её бронирования и сама устаревает, когда наступает ближайшее бронирование.
+ * В памяти держится не больше maxItems вещей, давно не запрошенные вытесняются.
+ */
+@Component
+public class ItemBookingSummaryCache {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final Map<Long, ItemBookingSummary> summaries;
+    private final AtomicLong version = new AtomicLong();
+
+    public ItemBookingSummaryCache(BookingRepository bookingRepository,
+                                   ArchivedBookingRepository archivedBookingRepository,
+                                   @Value("${shareit.booking.summary-cache.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.summaries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemBookingSummary> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public ItemBookingSummary get(Long itemId) {
+        return getAll(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemBookingSummary> getAll(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (summaries) {
+            for (Long itemId : itemIds) {
+                ItemBookingSummary summary = summaries.get(itemId);
+                if (summary != null && summary.isValidAt(now)) {
+                    result.put(itemId, summary);
+                } else {
+                    missing.add(itemId);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadedVersion = version.get();
+            Map<Long, ItemBookingSummary> loaded = load(missing, now);
+            result.putAll(loaded);
+            synchronized (summaries) {
+                if (loadedVersion == version.get()) {
+                    summaries.putAll(loaded);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает запись вещи сразу и ещё раз после завершения транзакции, чтобы
+     * параллельное чтение не вернуло в кэш данные до фиксации.
+     */
+    public void evict(Long itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    private void remove(Long itemId) {
+        synchronized (summaries) {
+            version.incrementAndGet();
+            summaries.remove(itemId);
+        }
+    }
+
+    private Map<Long, ItemBookingSummary> load(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, BookingItemDto> last = toItemMap(bookingRepository.findLastBookings(itemIds,
+                BookingStatus.APPROVED, now));
+        List<Long> withoutLast = itemIds.stream()
+                .filter(itemId -> !last.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!withoutLast.isEmpty()) {
+            archivedBookingRepository.findLastBookings(withoutLast, BookingStatus.APPROVED, now).stream()
+                    .map(BookingMapper::toBooking)
+                    .forEach(booking -> last.merge(booking.getItem().getId(), BookingMapper.toBookingItemDto(booking),
+                            (first, second) -> first.getId() < second.getId() ? second : first));
+        }
+        Map<Long, BookingItemDto> next = toItemMap(bookingRepository.findNextBookings(itemIds,
+                BookingStatus.APPROVED, now));
+        Map<Long, ItemBookingSummary> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            BookingItemDto nextBooking = next.get(itemId);
+            loaded.put(itemId, new ItemBookingSummary(last.get(itemId), nextBooking,
+                    nextBooking != null ? nextBooking.getStart() : null));
+        }
+        return loaded;
+    }
+
+    private Map<Long, BookingItemDto> toItemMap(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingItemDto,
+                        (first, second) -> first.getId() < second.getId() ? second : first));
+    }
+}
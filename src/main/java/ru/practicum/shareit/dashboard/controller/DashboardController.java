@@ -0,0 +1,30 @@
+package ru.practicum.shareit.dashboard.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.dashboard.service.DashboardService;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/owner")
+    public OwnerDashboardDto getOwnerDashboard(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                               @RequestParam(name = "size", defaultValue = "20")
+                                               @Positive @Max(500) Integer size) {
+        return dashboardService.getOwnerDashboard(userId, size);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.dashboard.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+/**
+ * Главный экран владельца: его вещи, бронирования на подтверждение, текущие бронирования
+ * и чужие запросы вещей.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OwnerDashboardDto {
+
+    List<ItemOwnerDto> items;
+
+    List<BookingDto> waitingBookings;
+
+    List<BookingDto> currentBookings;
+
+    List<ItemRequestDto> requests;
+}
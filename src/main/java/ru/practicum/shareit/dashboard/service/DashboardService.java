@@ -0,0 +1,8 @@
+package ru.practicum.shareit.dashboard.service;
+
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+
+public interface DashboardService {
+
+    OwnerDashboardDto getOwnerDashboard(Long userId, Integer size);
+}
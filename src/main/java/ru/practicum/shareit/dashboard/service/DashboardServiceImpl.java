@@ -0,0 +1,118 @@
+package ru.practicum.shareit.dashboard.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Собирает главный экран владельца за один запрос. Пользователь проверяется один раз,
+ * затем четыре независимых запроса выполняются параллельно на ограниченном пуле.
+ * Если пул и его очередь заняты, часть работы выполняет поток запроса. Каждый запрос идёт
+ * в транзакции с таймаутом, который Spring передаёт в JDBC как таймаут запроса: по истечении
+ * времени база сама прерывает запрос, а задачи пула отменяются с прерыванием потока.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeout;
+
+    public DashboardServiceImpl(UserService userService,
+                                ItemService itemService,
+                                BookingService bookingService,
+                                ItemRequestService itemRequestService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.dashboard.threads:8}") int threads,
+                                @Value("${shareit.dashboard.queue-capacity:100}") int queueCapacity,
+                                @Value("${shareit.dashboard.timeout-ms:5000}") long timeout) {
+        this.userService = userService;
+        this.itemService = itemService;
+        this.bookingService = bookingService;
+        this.itemRequestService = itemRequestService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(timeout + 999));
+        this.timeout = timeout;
+    }
+
+    @Override
+    public OwnerDashboardDto getOwnerDashboard(Long userId, Integer size) {
+        userService.validateUserById(userId);
+        Future<List<ItemOwnerDto>> items = submit(() -> itemService.getOwnerItems(userId, 0, size));
+        Future<List<BookingDto>> waiting = submit(() ->
+                bookingService.getOwnerBookings(userId, BookingState.WAITING.name(), size));
+        Future<List<BookingDto>> current = submit(() ->
+                bookingService.getOwnerBookings(userId, BookingState.CURRENT.name(), size));
+        Future<List<ItemRequestDto>> requests = submit(() ->
+                itemRequestService.getRequests(userId, 0, size));
+        List<Future<?>> all = List.of(items, waiting, current, requests);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            return new OwnerDashboardDto(get(items, deadline), get(waiting, deadline), get(current, deadline),
+                    get(requests, deadline));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Запрос прерван");
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException("Не удалось собрать данные за отведённое время");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            cancel(all);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Supplier<T> query) {
+        return executor.submit(() -> transactionTemplate.execute(status -> query.get()));
+    }
+
+    private <T> T get(Future<T> future, long deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Отменяет с прерыванием потока задачи, которые ещё выполняются; завершённые не затрагиваются.
+     */
+    private void cancel(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
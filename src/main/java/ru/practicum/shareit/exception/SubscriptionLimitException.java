@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class SubscriptionLimitException extends RuntimeException {
+
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Ключи идемпотентности для POST /bookings, /items и /requests. По умолчанию ответы хранятся
+ * в памяти узла; shareit.idempotency.store=jdbc переключает на общую таблицу idempotency_keys.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(
+            @Value("${shareit.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${shareit.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        return new InMemoryIdempotencyStore(maxEntries, Duration.ofMinutes(ttlMinutes), Clock.systemDefaultZone());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                                 @Value("${shareit.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                                 @Value("${shareit.idempotency.lease-ms:30000}") long leaseMs) {
+        return new JdbcIdempotencyStore(jdbcTemplate, Duration.ofMinutes(ttlMinutes), Duration.ofMillis(leaseMs),
+                Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       ObjectMapper objectMapper,
+                                                                       @Value("${shareit.idempotency.wait-ms:10000}")
+                                                                       long waitMs) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(
+                store, Set.of("/bookings", "/items", "/requests"), Duration.ofMillis(waitMs), objectMapper));
+        registration.addUrlPatterns("/bookings", "/items", "/requests");
+        return registration;
+    }
+}
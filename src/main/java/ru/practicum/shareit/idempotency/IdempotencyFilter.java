@@ -0,0 +1,237 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Повторяет первый ответ на POST с заголовком Idempotency-Key, не вызывая контроллер.
+ * Ключ действует в пределах пользователя и пути. Одновременный дубликат на этом узле ждёт
+ * результата первого запроса, на другом узле — пока ответ не появится в хранилище.
+ * Ответы 5xx не сохраняются: такой запрос можно повторить с тем же ключом.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyStore store;
+    private final Set<String> paths;
+    private final Duration waitTimeout;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, Set<String> paths, Duration waitTimeout,
+                             ObjectMapper objectMapper) {
+        this.store = store;
+        this.paths = paths;
+        this.waitTimeout = waitTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, String.format(
+                    "Заголовок %s должен содержать от 1 до %d символов", IDEMPOTENCY_KEY_HEADER, MAX_KEY_LENGTH));
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String requestHash = DigestUtils.md5DigestAsHex(body);
+        String key = request.getHeader(USER_HEADER) + ":" + request.getRequestURI() + ":" + idempotencyKey;
+
+        CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            replay(response, requestHash, await(running));
+            return;
+        }
+        boolean reserved = false;
+        try {
+            Optional<IdempotentResponse> stored = store.find(key);
+            if (stored.isEmpty()) {
+                reserved = store.reserve(key);
+                if (!reserved) {
+                    stored = poll(key);
+                }
+            }
+            if (!reserved) {
+                own.complete(stored.orElse(null));
+                replay(response, requestHash, stored.orElse(null));
+                return;
+            }
+            own.complete(execute(new CachedBodyRequest(request, body), response, chain, key, requestHash));
+        } catch (IOException | ServletException | RuntimeException e) {
+            own.completeExceptionally(e);
+            if (reserved) {
+                store.release(key);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private IdempotentResponse execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                                       String key, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        IdempotentResponse result = new IdempotentResponse(requestHash, wrapper.getStatus(),
+                wrapper.getContentType(), wrapper.getContentAsByteArray());
+        if (result.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            store.save(key, result);
+        } else {
+            store.release(key);
+        }
+        wrapper.copyBodyToResponse();
+        return result;
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private Optional<IdempotentResponse> poll(String key) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Optional<IdempotentResponse> stored = store.find(key);
+            if (stored.isPresent()) {
+                return stored;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void replay(HttpServletResponse response, String requestHash, IdempotentResponse stored)
+            throws IOException {
+        if (stored == null) {
+            writeError(response, HttpStatus.CONFLICT, "Запрос с этим ключом идемпотентности ещё выполняется");
+            return;
+        }
+        if (!requestHash.equals(stored.getRequestHash())) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Ключ идемпотентности уже использован для запроса с другим телом");
+            return;
+        }
+        log.debug("Повтор запроса с ключом идемпотентности, возвращаем сохранённый ответ");
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status, message));
+    }
+
+    /**
+     * Запрос с уже прочитанным телом: контроллер читает его из буфера.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    /**
+     * Готовый ответ по ключу, если он сохранён и ещё не истёк.
+     */
+    Optional<IdempotentResponse> find(String key);
+
+    /**
+     * Занимает ключ перед выполнением запроса. Возвращает false, если ключ уже занят
+     * запросом на другом узле, который ещё не сохранил ответ.
+     */
+    boolean reserve(String key);
+
+    void save(String key, IdempotentResponse response);
+
+    /**
+     * Освобождает занятый ключ без ответа, чтобы повтор выполнился заново.
+     */
+    void release(String key);
+}
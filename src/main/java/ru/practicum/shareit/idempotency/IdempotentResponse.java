@@ -0,0 +1,24 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Сохранённый ответ на запрос с ключом идемпотентности. requestHash — хеш тела запроса:
+ * повтор с тем же ключом, но другим телом, не воспроизводится.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IdempotentResponse {
+
+    String requestHash;
+
+    int status;
+
+    String contentType;
+
+    byte[] body;
+}
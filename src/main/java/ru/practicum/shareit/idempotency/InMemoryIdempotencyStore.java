@@ -0,0 +1,73 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Хранилище ответов в памяти узла: не больше maxEntries ключей, давно не использованные
+ * вытесняются первыми, каждый ответ живёт ttl. Одновременные запросы с одним ключом
+ * разводит фильтр, поэтому резервировать ключ здесь не нужно.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, StoredResponse> entries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key) {
+        StoredResponse stored = entries.get(key);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (!stored.expiresAt.isAfter(clock.instant())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(stored.response);
+    }
+
+    @Override
+    public boolean reserve(String key) {
+        return true;
+    }
+
+    @Override
+    public synchronized void save(String key, IdempotentResponse response) {
+        entries.put(key, new StoredResponse(response, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public void release(String key) {
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class StoredResponse {
+
+        private final IdempotentResponse response;
+        private final Instant expiresAt;
+
+        StoredResponse(IdempotentResponse response, Instant expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Хранилище ответов в таблице idempotency_keys для нескольких узлов. Ключ занимается
+ * вставкой строки без ответа: первичный ключ не даёт двум узлам выполнить запрос одновременно.
+ * Резерв живёт lease, порядка времени обработки запроса, чтобы ключ узла, упавшего до ответа,
+ * быстро перешёл к повтору; сохранённый ответ живёт ttl.
+ */
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lease, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        List<IdempotentResponse> responses = jdbcTemplate.query("SELECT request_hash, status, content_type, body " +
+                        "FROM idempotency_keys WHERE idempotency_key = ? AND status IS NOT NULL AND expires_at > ?",
+                (rs, rowNum) -> new IdempotentResponse(rs.getString("request_hash"), rs.getInt("status"),
+                        rs.getString("content_type"), rs.getBytes("body")),
+                key, now());
+        return responses.stream().findFirst();
+    }
+
+    @Override
+    public boolean reserve(String key) {
+        LocalDateTime now = now();
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, expires_at) VALUES (?, ?)",
+                    key, now.plus(lease));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET request_hash = ?, status = ?, content_type = ?, body = ?, " +
+                        "expires_at = ? WHERE idempotency_key = ?",
+                response.getRequestHash(), response.getStatus(), response.getContentType(), response.getBody(),
+                now().plus(ttl), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", now());
+        if (deleted > 0) {
+            log.info("Удалено {} истёкших ключей идемпотентности", deleted);
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
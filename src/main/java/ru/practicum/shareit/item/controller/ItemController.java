@@ -1,16 +1,21 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validation.GroupValidation.Create;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -37,6 +42,16 @@ public class ItemController {
         return itemService.getItemById(userId, itemId);
     }
 
+    @GetMapping("{id}/availability")
+    public ItemAvailabilityDto getItemAvailability(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                   @PathVariable("id") @Positive Long itemId,
+                                                   @RequestParam(name = "from")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(name = "to")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> getSearchItem(@RequestParam(name = "text", defaultValue = "") String text,
                                        @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
@@ -44,6 +59,13 @@ public class ItemController {
         return itemService.getSearchItem(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> getSuggestions(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                  @RequestParam(name = "limit", defaultValue = "10")
+                                                  @Positive @Max(50) Integer limit) {
+        return itemService.getSuggestions(prefix, limit);
+    }
+
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
                               @Validated(Create.class) @RequestBody ItemDto itemDto) {
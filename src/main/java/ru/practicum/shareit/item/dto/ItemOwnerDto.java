@@ -30,4 +30,15 @@ public class ItemOwnerDto {
 
     List<CommentDto> comments;
 
+    /**
+     * Конструктор для выборки проекцией: бронирования и отзывы заполняются позже.
+     */
+    public ItemOwnerDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
+
 }
@@ -4,20 +4,62 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerId(Long userId, PageRequest pageRequest);
 
-    @Query("select i from Item i where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%'))) and i.available = true order by i.id ")
+    @Query("select i.id from Item i where i.owner.id = ?1 order by i.id")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    /**
+     * Поиск подстроки в названии или описании: % и _ в text экранируются и ищутся как обычные символы.
+     */
+    @Query("select i from Item i where (upper(i.name) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()} or upper(i.description) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()}) and i.available = true order by i.id")
     List<Item> search(String text, Pageable pageable);
 
+    @Query("select new ru.practicum.shareit.item.dto.ItemOwnerDto(i.id, i.name, i.description, i.available, " +
+            "i.request.id) from Item i where i.owner.id = ?1 order by i.id")
+    List<ItemOwnerDto> findItemOwnerDtosByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.request.id) from Item i where (upper(i.name) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()} or upper(i.description) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()}) and i.available = true order by i.id")
+    List<ItemDto> searchItemDtos(String text, Pageable pageable);
+
+    @Query("select i.id from Item i where (upper(i.name) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()} or upper(i.description) like upper(concat('%', ?#{escape([0])}, '%')) " +
+            "escape ?#{escapeCharacter()}) and i.available = true order by i.id")
+    List<Long> searchIds(String text, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.request.id) from Item i where i.available = true order by i.id")
+    Stream<ItemDto> streamAvailableItemDtos();
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.request.id) from Item i where i.id in ?1 and i.available = true order by i.id")
+    List<ItemDto> findAvailableItemDtosByIdIn(Collection<Long> ids);
+
     List<Item> findAllByRequest_IdOrderByRequestDesc(Long requestId);
 
     List<Item> findByRequestIdIn(List<Long> requestsIds);
 
+    @Query("select i from Item i join fetch i.owner where i.id in ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
 }
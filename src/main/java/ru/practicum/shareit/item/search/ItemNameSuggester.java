@@ -0,0 +1,421 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Подсказки названий доступных вещей по началу названия без учёта регистра. Названия хранятся
+ * в сжатом префиксном дереве: цепочки узлов с одним ребёнком склеены в одно ребро. Популярность
+ * названия — сколько доступных вещей его носят; у каждого узла запомнен максимум по поддереву,
+ * поэтому лучшие подсказки находятся без обхода всего поддерева. Дерево строится при старте,
+ * изменения вещей применяются после фиксации. Объём памяти оценивается и ограничен maxBytes:
+ * новое название, не влезающее в бюджет, не добавляется.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=ItemNameSuggester")
+public class ItemNameSuggester {
+
+    /**
+     * Оценка узла без строки ребра: объект, ссылки, массивы детей.
+     */
+    private static final int NODE_BYTES = 64;
+    /**
+     * Оценка записи «вещь → узел названия».
+     */
+    private static final int ITEM_BYTES = 48;
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ItemRepository itemRepository;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Node> itemNodes = new HashMap<>();
+    private Node root = new Node("", null);
+    private int nodes;
+    private int names;
+    private long labelChars;
+    private long nameChars;
+    private long rejected;
+    private volatile boolean ready;
+
+    public ItemNameSuggester(ItemRepository itemRepository,
+                             @Value("${shareit.search.suggest.max-bytes:16777216}") long maxBytes) {
+        this.itemRepository = itemRepository;
+        this.maxBytes = maxBytes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @ManagedOperation(description = "Перестроить подсказки из таблицы items")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            itemNodes.clear();
+            root = new Node("", null);
+            nodes = 0;
+            names = 0;
+            labelChars = 0;
+            nameChars = 0;
+            rejected = 0;
+            try (Stream<ItemDto> items = itemRepository.streamAvailableItemDtos()) {
+                items.forEach(item -> put(item.getId(), item.getName(), true));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Подсказки названий построены: {} названий, {} узлов, ~{} байт за {} мс", names, nodes,
+                getEstimatedBytes(), System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Обновляет название вещи после фиксации транзакции; недоступная вещь из подсказок убирается.
+     */
+    public void index(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(itemId, name, available);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(itemId, name, available);
+            }
+        });
+    }
+
+    /**
+     * Не больше limit названий, начинающихся с prefix, от самых популярных.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.child(key.charAt(position));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefix(child.label, key, position);
+                if (position + common < key.length() && common < child.label.length()) {
+                    return Collections.emptyList();
+                }
+                position += common;
+                node = child;
+            }
+            return top(node, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Различных названий в подсказках")
+    public int getNames() {
+        lock.readLock().lock();
+        try {
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Узлов в дереве")
+    public int getNodes() {
+        lock.readLock().lock();
+        try {
+            return nodes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Оценка занятой памяти, байт")
+    public long getEstimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Бюджет памяти, байт")
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @ManagedAttribute(description = "Сколько названий не добавлено из-за бюджета памяти")
+    public long getRejected() {
+        lock.readLock().lock();
+        try {
+            return rejected;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Long itemId, String name, boolean available) {
+        lock.writeLock().lock();
+        try {
+            put(itemId, name, available);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long itemId, String name, boolean available) {
+        Node previous = itemNodes.remove(itemId);
+        if (previous != null) {
+            remove(previous);
+        }
+        if (!available || name == null || name.isBlank()) {
+            return;
+        }
+        String displayName = name.strip();
+        String key = fold(displayName);
+        Node node = find(key);
+        long required = node != null && node.count > 0 ? ITEM_BYTES
+                : ITEM_BYTES + 2L * NODE_BYTES + 2L * key.length() + 2L * displayName.length();
+        if (estimatedBytes() + required > maxBytes) {
+            rejected++;
+            return;
+        }
+        node = insert(key);
+        if (node.count == 0) {
+            node.name = displayName;
+            names++;
+            nameChars += displayName.length();
+        }
+        node.count++;
+        itemNodes.put(itemId, node);
+        for (Node current = node; current != null && current.best < node.count; current = current.parent) {
+            current.best = node.count;
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                return null;
+            }
+            position += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Узел для key; недостающий хвост добавляется одним ребром, ребро с частичным совпадением
+     * делится на два.
+     */
+    private Node insert(String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                Node leaf = new Node(key.substring(position), node);
+                node.add(leaf);
+                nodes++;
+                labelChars += leaf.label.length();
+                return leaf;
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                Node middle = new Node(child.label.substring(0, common), node);
+                node.replace(child, middle);
+                child.label = child.label.substring(common);
+                child.parent = middle;
+                middle.add(child);
+                middle.best = child.best;
+                nodes++;
+                child = middle;
+            }
+            position += common;
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Уменьшает популярность названия; узлы без названий и детей удаляются, узел без названия
+     * с одним ребёнком склеивается с ним.
+     */
+    private void remove(Node node) {
+        node.count--;
+        if (node.count == 0) {
+            names--;
+            nameChars -= node.name.length();
+            node.name = null;
+        }
+        while (node != root && node.count == 0 && node.children.length == 0) {
+            Node parent = node.parent;
+            parent.remove(node);
+            nodes--;
+            labelChars -= node.label.length();
+            node = parent;
+        }
+        if (node != root && node.count == 0 && node.children.length == 1) {
+            Node child = node.children[0];
+            child.label = node.label + child.label;
+            child.parent = node.parent;
+            node.parent.replace(node, child);
+            nodes--;
+            node = child.parent;
+        }
+        for (Node current = node; current != null; current = current.parent) {
+            int best = current.count;
+            for (Node child : current.children) {
+                best = Math.max(best, child.best);
+            }
+            current.best = best;
+        }
+    }
+
+    /**
+     * Лучшие названия поддерева: очередь по убыванию популярности, поддерево раскрывается,
+     * только когда его максимум не хуже уже найденных.
+     */
+    private List<ItemSuggestionDto> top(Node start, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator
+                .comparingInt((Candidate candidate) -> -candidate.score)
+                .thenComparing(candidate -> candidate.expand));
+        queue.add(new Candidate(start, start.best, true));
+        List<ItemSuggestionDto> result = new ArrayList<>(Math.min(limit, names));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (!candidate.expand) {
+                result.add(new ItemSuggestionDto(node.name, node.count));
+                continue;
+            }
+            if (node.count > 0) {
+                queue.add(new Candidate(node, node.count, false));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, child.best, true));
+            }
+        }
+        return result;
+    }
+
+    private long estimatedBytes() {
+        return (long) nodes * NODE_BYTES + 2 * (labelChars + nameChars) + (long) itemNodes.size() * ITEM_BYTES;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static String fold(String value) {
+        return value == null ? "" : value.strip().toUpperCase(Locale.ROOT);
+    }
+
+    private static class Node {
+
+        private String label;
+        private Node parent;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String name;
+        private int count;
+        private int best;
+
+        Node(String label, Node parent) {
+            this.label = label;
+            this.parent = parent;
+        }
+
+        Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        void add(Node child) {
+            int position = -Arrays.binarySearch(keys, child.label.charAt(0)) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newKeys[position] = child.label.charAt(0);
+            newChildren[position] = child;
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void replace(Node child, Node replacement) {
+            children[Arrays.binarySearch(keys, child.label.charAt(0))] = replacement;
+        }
+
+        void remove(Node child) {
+            int position = Arrays.binarySearch(keys, child.label.charAt(0));
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, newKeys.length - position);
+            System.arraycopy(children, position + 1, newChildren, position, newChildren.length - position);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+    private static class Candidate {
+
+        private final Node node;
+        private final int score;
+        private final boolean expand;
+
+        Candidate(Node node, int score, boolean expand) {
+            this.node = node;
+            this.score = score;
+            this.expand = expand;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.nio.file.Path;
+
+/**
+ * Движок поиска вещей: по умолчанию инвертированный индекс в памяти узла,
+ * shareit.search.engine=jpql возвращает поиск запросом LIKE к базе,
+ * shareit.search.engine=lucene включает полнотекстовый поиск с индексом на диске.
+ */
+@Configuration
+public class ItemSearchConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+    public ItemSearchEngine itemSearchIndex(ItemRepository itemRepository) {
+        return new ItemSearchIndex(itemRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpql")
+    public ItemSearchEngine jpqlItemSearchEngine(ItemRepository itemRepository) {
+        return new JpqlItemSearchEngine(itemRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.search.engine", havingValue = "lucene")
+    public ItemSearchEngine luceneItemSearchEngine(ItemRepository itemRepository,
+                                                   @Value("${shareit.search.lucene.directory:data/item-index}")
+                                                   Path directory) {
+        return new LuceneItemSearchEngine(itemRepository, directory);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту для GET /items/search. Реализация выбирается
+ * свойством shareit.search.engine, см. {@link ItemSearchConfig}.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Пока движок не готов, поиск выполняется запросом LIKE к таблице items.
+     */
+    boolean isReady();
+
+    /**
+     * Находит ли движок вещь только по подстроке её названия или описания. Тогда изменение вещи
+     * сбрасывает в {@link ItemSearchResultCache} лишь затронутые запросы, иначе весь кэш.
+     */
+    default boolean matchesSubstrings() {
+        return true;
+    }
+
+    /**
+     * id найденных вещей в порядке выдачи, начиная с offset.
+     */
+    List<Long> search(String text, int offset, int limit);
+
+    /**
+     * Сообщает об изменении вещи; движок учитывает его после фиксации транзакции.
+     */
+    void index(Item item);
+
+    /**
+     * Перестраивает данные движка из таблицы items.
+     */
+    void rebuild();
+}
@@ -0,0 +1,344 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс доступных вещей для поиска по подстроке в названии или описании
+ * без учёта регистра — с тем же результатом, что и ItemRepository.search: там % и _ экранируются,
+ * так что и здесь это обычные символы. Слова запроса сужают кандидатов по спискам вещей из словаря,
+ * затем подстрока проверяется по тексту вещи в памяти. Индекс строится при старте, изменения вещей
+ * применяются после фиксации.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ManagedResource(objectName = "ru.practicum.shareit:type=ItemSearchIndex")
+public class ItemSearchIndex implements ItemSearchEngine {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ItemRepository itemRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private long[] itemIds = new long[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private int docCount;
+    private int documents;
+    private volatile boolean ready;
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @ManagedOperation(description = "Перестроить индекс из таблицы items")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            postings.clear();
+            itemIds = new long[INITIAL_CAPACITY];
+            texts = new String[INITIAL_CAPACITY];
+            docCount = 0;
+            documents = 0;
+            try (Stream<ItemDto> items = itemRepository.streamAvailableItemDtos()) {
+                items.forEach(item -> put(item.getId(), item.getName(), item.getDescription(), true));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей построен: {} вещей, {} слов за {} мс", documents, postings.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Обновляет вещь в индексе после фиксации транзакции; недоступная вещь из индекса убирается.
+     */
+    @Override
+    public void index(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(itemId, name, description, available);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(itemId, name, description, available);
+            }
+        });
+    }
+
+    /**
+     * id доступных вещей, содержащих text в названии или описании, по возрастанию id, начиная с offset.
+     */
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        String query = ItemSearchText.fold(text);
+        List<QueryToken> queryTokens = queryTokens(query);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = null;
+            for (QueryToken queryToken : queryTokens) {
+                BitSet docs = queryToken.matchesWholeWord() ? exact(queryToken.token) : partial(queryToken);
+                if (candidates == null) {
+                    candidates = docs;
+                } else {
+                    candidates.and(docs);
+                }
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            long[] found = new long[candidates == null ? documents : candidates.cardinality()];
+            int count = 0;
+            int doc = candidates == null ? 0 : candidates.nextSetBit(0);
+            while (doc >= 0 && doc < docCount) {
+                if (texts[doc] != null && texts[doc].contains(query)) {
+                    found[count++] = itemIds[doc];
+                }
+                doc = candidates == null ? doc + 1 : candidates.nextSetBit(doc + 1);
+            }
+            Arrays.sort(found, 0, count);
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, count - offset)));
+            for (int i = offset; i < count && i < offset + limit; i++) {
+                page.add(found[i]);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Доступных вещей в индексе")
+    public int getDocuments() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Различных слов в индексе")
+    public int getTokens() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Long itemId, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            put(itemId, name, description, available);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long itemId, String name, String description, boolean available) {
+        Integer docId = docIds.get(itemId);
+        if (docId != null && texts[docId] != null) {
+            for (String token : tokens(texts[docId])) {
+                Postings tokenPostings = postings.get(token);
+                tokenPostings.remove(docId);
+                if (tokenPostings.size == 0) {
+                    postings.remove(token);
+                }
+            }
+            texts[docId] = null;
+            documents--;
+        }
+        if (!available) {
+            return;
+        }
+        if (docId == null) {
+            docId = docCount++;
+            if (docId == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, docId * 2);
+                texts = Arrays.copyOf(texts, docId * 2);
+            }
+            itemIds[docId] = itemId;
+            docIds.put(itemId, docId);
+        }
+        String text = ItemSearchText.of(name, description);
+        texts[docId] = text;
+        documents++;
+        for (String token : tokens(text)) {
+            postings.computeIfAbsent(token, t -> new Postings()).add(docId);
+        }
+    }
+
+    private BitSet exact(String token) {
+        BitSet docs = new BitSet(docCount);
+        Postings tokenPostings = postings.get(token);
+        if (tokenPostings != null) {
+            tokenPostings.addTo(docs);
+        }
+        return docs;
+    }
+
+    /**
+     * Крайнее слово запроса может оказаться частью слова вещи. Последнее слово запроса — начало
+     * слова вещи, такие слова идут в отсортированном словаре подряд; для первого и единственного
+     * слова просматривается весь словарь: он намного меньше таблицы и целиком в памяти.
+     */
+    private BitSet partial(QueryToken queryToken) {
+        BitSet docs = new BitSet(docCount);
+        if (!queryToken.openLeft) {
+            for (Map.Entry<String, Postings> entry : postings.tailMap(queryToken.token, true).entrySet()) {
+                if (!entry.getKey().startsWith(queryToken.token)) {
+                    break;
+                }
+                entry.getValue().addTo(docs);
+            }
+            return docs;
+        }
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            if (queryToken.matches(entry.getKey())) {
+                entry.getValue().addTo(docs);
+            }
+        }
+        return docs;
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Слова запроса с пометкой, продолжается ли слово вещи слева и справа: внутреннее слово
+     * запроса должно совпасть со словом вещи целиком, первое — быть его окончанием, последнее — началом.
+     */
+    private static List<QueryToken> queryTokens(String query) {
+        List<QueryToken> result = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= query.length(); i++) {
+            boolean wordChar = i < query.length() && Character.isLetterOrDigit(query.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(new QueryToken(query.substring(start, i), start == 0, i == query.length()));
+                start = -1;
+            }
+        }
+        return result;
+    }
+
+    private static class QueryToken {
+
+        private final String token;
+        private final boolean openLeft;
+        private final boolean openRight;
+
+        QueryToken(String token, boolean openLeft, boolean openRight) {
+            this.token = token;
+            this.openLeft = openLeft;
+            this.openRight = openRight;
+        }
+
+        boolean matchesWholeWord() {
+            return !openLeft && !openRight;
+        }
+
+        boolean matches(String word) {
+            if (openLeft && openRight) {
+                return word.contains(token);
+            }
+            return openLeft ? word.endsWith(token) : word.startsWith(token);
+        }
+    }
+
+    /**
+     * Отсортированный список номеров документов слова.
+     */
+    private static class Postings {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] < doc) {
+                append(doc);
+                return;
+            }
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            append(doc);
+            System.arraycopy(docs, position, docs, position + 1, size - position - 1);
+            docs[position] = doc;
+        }
+
+        void remove(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position >= 0) {
+                System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+                size--;
+            }
+        }
+
+        void addTo(BitSet target) {
+            for (int i = 0; i < size; i++) {
+                target.set(docs[i]);
+            }
+        }
+
+        private void append(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
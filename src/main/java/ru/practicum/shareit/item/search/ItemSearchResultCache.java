@@ -0,0 +1,201 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш id найденных вещей для GET /items/search по запросу без учёта регистра и странице:
+ * не больше maxEntries записей, давно не читанные вытесняются первыми. Изменение вещи
+ * сбрасывает только запросы, которые находили её до изменения или находят после, — все их
+ * страницы, потому что вещь сдвигает выдачу. % и _ поиск экранирует, поэтому и здесь
+ * они сравниваются как обычные символы.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=ItemSearchResultCache")
+public class ItemSearchResultCache {
+
+    private final Map<Key, List<Long>> entries;
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemSearchResultCache(@Value("${shareit.search.result-cache.max-entries:1000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Long>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Возвращает страницу из кэша или загружает её через loader. Загруженное не попадает в кэш,
+     * если за время загрузки изменилась какая-нибудь вещь.
+     */
+    public List<Long> get(String text, int offset, int limit, Supplier<List<Long>> loader) {
+        Key key = new Key(ItemSearchText.fold(text), offset, limit);
+        synchronized (entries) {
+            List<Long> ids = entries.get(key);
+            if (ids != null) {
+                hits.incrementAndGet();
+                return ids;
+            }
+        }
+        misses.incrementAndGet();
+        long loadedVersion = version.get();
+        List<Long> ids = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (loadedVersion == version.get()) {
+                entries.put(key, ids);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Текст вещи, по которому её находит поиск, или null, если вещь недоступна и не находится вовсе.
+     */
+    public static String searchText(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        return ItemSearchText.of(item.getName(), item.getDescription());
+    }
+
+    /**
+     * Сбрасывает запросы, затронутые изменением вещи, сразу и ещё раз после завершения транзакции,
+     * когда изменение уже видно поиску.
+     *
+     * @param previousText {@link #searchText(Item)} до изменения, null для новой вещи
+     */
+    public void evict(String previousText, Item item) {
+        List<String> texts = new ArrayList<>(2);
+        if (previousText != null) {
+            texts.add(previousText);
+        }
+        String currentText = searchText(item);
+        if (currentText != null && !currentText.equals(previousText)) {
+            texts.add(currentText);
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        evictMatching(texts);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictMatching(texts);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает весь кэш сразу и ещё раз после завершения транзакции: для движков, которые находят
+     * вещь не только по подстроке, по тексту вещи не понять, какие запросы она затронула.
+     */
+    public void evictAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    @ManagedOperation(description = "Очистить кэш")
+    public void clear() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "Записей в кэше")
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @ManagedAttribute(description = "Сколько поисков обслужено из кэша")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Сколько поисков ушло в движок")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Доля поисков из кэша")
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @ManagedAttribute(description = "Сколько записей сброшено при изменении вещей")
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    private void evictMatching(Collection<String> texts) {
+        int removed = 0;
+        synchronized (entries) {
+            version.incrementAndGet();
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().affectedBy(texts)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidations.addAndGet(removed);
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final String query;
+        private final int offset;
+        private final int limit;
+
+        Key(String query, int offset, int limit) {
+            this.query = query;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        boolean affectedBy(Collection<String> texts) {
+            for (String text : texts) {
+                if (text.contains(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Locale;
+
+/**
+ * Текст вещи для поиска по подстроке, общий для {@link ItemSearchIndex} и {@link ItemSearchResultCache}:
+ * оба должны находить вещь по одному и тому же тексту.
+ */
+final class ItemSearchText {
+
+    /**
+     * Разделитель названия и описания: в строках базы его нет, поэтому подстрока запроса
+     * не может захватить конец названия и начало описания.
+     */
+    static final char FIELD_SEPARATOR = '\u0000';
+
+    private ItemSearchText() {
+    }
+
+    static String of(String name, String description) {
+        return fold(name) + FIELD_SEPARATOR + fold(description);
+    }
+
+    /**
+     * Приводит строку к виду, в котором сравнивает поиск: без учёта регистра, как upper() в запросе.
+     */
+    static String fold(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск запросом LIKE '%text%' к таблице items без собственных данных в памяти.
+ */
+@RequiredArgsConstructor
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        return itemRepository.searchIds(text, PageRequest.of(offset / limit, limit));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void rebuild() {
+    }
+}
@@ -0,0 +1,275 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Полнотекстовый поиск доступных вещей на Lucene с индексом на локальном диске (MMapDirectory).
+ * Каждое слово запроса должно найтись в названии или описании: целиком, как начало слова или
+ * с одной опечаткой. Выдача упорядочена по релевантности: слово в названии выше слова в описании,
+ * целое слово выше начала, начало выше опечатки. В отличие от LIKE, середина слова не находится.
+ * Индекс перестраивается при старте, изменения вещей после фиксации сразу видны поиску без сброса
+ * индекса на диск (near-real-time).
+ */
+@Slf4j
+@ManagedResource(objectName = "ru.practicum.shareit:type=LuceneItemSearchEngine")
+public class LuceneItemSearchEngine implements ItemSearchEngine {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String TEXT = "text";
+    private static final float NAME_BOOST = 8;
+    private static final float EXACT_BOOST = 4;
+    private static final float PREFIX_BOOST = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final Set<String> FIELDS_TO_LOAD = Set.of(ID);
+
+    private final ItemRepository itemRepository;
+    private final Analyzer analyzer = new ItemAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public LuceneItemSearchEngine(ItemRepository itemRepository, Path directory) {
+        this.itemRepository = itemRepository;
+        try {
+            writer = new IndexWriter(new MMapDirectory(directory), new IndexWriterConfig(analyzer));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @ManagedOperation(description = "Перестроить индекс из таблицы items")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        writeLock.lock();
+        try (Stream<ItemDto> items = itemRepository.streamAvailableItemDtos()) {
+            writer.deleteAll();
+            for (ItemDto item : (Iterable<ItemDto>) items::iterator) {
+                writer.addDocument(document(item.getId(), item.getName(), item.getDescription()));
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Индекс Lucene построен: {} вещей за {} мс", getDocuments(), System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Опечатки и начала слов делают выдачу шире подстроки, поэтому кэш выдачи сбрасывается целиком.
+     */
+    @Override
+    public boolean matchesSubstrings() {
+        return false;
+    }
+
+    /**
+     * Обновляет вещь в индексе после фиксации транзакции; недоступная вещь из индекса убирается.
+     */
+    @Override
+    public void index(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(itemId, name, description, available);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(itemId, name, description, available);
+            }
+        });
+    }
+
+    /**
+     * id найденных вещей по убыванию релевантности, начиная с offset.
+     */
+    @Override
+    public List<Long> search(String text, int offset, int limit) {
+        Query query = query(text);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int hits = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+                ScoreDoc[] found = searcher.search(query, hits).scoreDocs;
+                List<Long> page = new ArrayList<>(Math.max(0, found.length - offset));
+                for (int i = offset; i < found.length; i++) {
+                    page.add(searcher.doc(found[i].doc, FIELDS_TO_LOAD).getField(ID).numericValue().longValue());
+                }
+                return page;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ManagedAttribute(description = "Доступных вещей в индексе")
+    public int getDocuments() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            searcherManager.close();
+            writer.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Изменение ждёт идущую перестройку, иначе перестройка могла бы вернуть вещь в состояние до него.
+     */
+    private void update(Long itemId, String name, String description, boolean available) {
+        writeLock.lock();
+        try {
+            Term id = new Term(ID, itemId.toString());
+            if (available) {
+                writer.updateDocument(id, document(itemId, name, description));
+            } else {
+                writer.deleteDocuments(id);
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Document document(Long itemId, String name, String description) {
+        Document document = new Document();
+        document.add(new StringField(ID, itemId.toString(), Field.Store.NO));
+        document.add(new StoredField(ID, itemId));
+        document.add(new TextField(NAME, name == null ? "" : name, Field.Store.NO));
+        document.add(new TextField(TEXT, name == null ? "" : name, Field.Store.NO));
+        document.add(new TextField(TEXT, description == null ? "" : description, Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * Начала слов и опечатки ищутся по общему полю названия и описания: каждый такой запрос
+     * перебирает словарь поля, а для опечаток ещё и строит автомат, поэтому поле одно.
+     */
+    private Query query(String text) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        List<String> words = words(text);
+        for (String word : words) {
+            Term term = new Term(TEXT, word);
+            BooleanQuery.Builder variants = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, word)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(term), EXACT_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(term), PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                variants.add(new FuzzyQuery(term, 1, 1), BooleanClause.Occur.SHOULD);
+            }
+            query.add(variants.build(), BooleanClause.Occur.MUST);
+        }
+        return words.isEmpty() ? null : query.build();
+    }
+
+    private List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    /**
+     * Слова по правилам Unicode без учёта регистра.
+     */
+    private static class ItemAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+        }
+    }
+}
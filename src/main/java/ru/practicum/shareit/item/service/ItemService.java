@@ -1,19 +1,36 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
     List<ItemOwnerDto> getAllItemsByUserId(Long userId, Integer from, Integer size);
 
+    /**
+     * То же, что {@link #getAllItemsByUserId}, но без проверки пользователя: её уже сделал вызывающий.
+     */
+    List<ItemOwnerDto> getOwnerItems(Long ownerId, Integer from, Integer size);
+
     ItemOwnerDto getItemById(Long userId, Long itemId);
 
     List<ItemDto> getSearchItem(String text, Integer from, Integer size);
 
+    /**
+     * Названия доступных вещей, начинающиеся с prefix, от самых популярных. Пока подсказки
+     * строятся при старте, список пуст.
+     */
+    List<ItemSuggestionDto> getSuggestions(String prefix, Integer limit);
+
+    ItemAvailabilityDto getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
     ItemDto createItem(Long userId, ItemDto itemDto);
 
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
@@ -21,4 +38,6 @@ public interface ItemService {
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 
     Item getById(Long itemId);
+
+    List<Item> getByIds(Collection<Long> itemIds);
 }
@@ -3,35 +3,47 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryCache;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchResultCache;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,34 +52,45 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryCache itemBookingSummaryCache;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchResultCache itemSearchResultCache;
+    private final ItemNameSuggester itemNameSuggester;
 
     @Override
     public List<ItemOwnerDto> getAllItemsByUserId(Long userId, Integer from, Integer size) {
         userService.validateUserById(userId);
-        PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by("id"));
-        List<Item> items = itemRepository.findAllByOwnerId(userId, pageRequest);
-        List<ItemOwnerDto> itemsOwnerDto = items.stream()
-                .map(ItemMapper::toItemOwnerDto)
+        return getOwnerItems(userId, from, size);
+    }
+
+    @Override
+    public List<ItemOwnerDto> getOwnerItems(Long ownerId, Integer from, Integer size) {
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        List<ItemOwnerDto> itemsOwnerDto = itemRepository.findItemOwnerDtosByOwnerId(ownerId, pageRequest);
+        if (itemsOwnerDto.isEmpty()) {
+            return itemsOwnerDto;
+        }
+        List<Long> itemIds = itemsOwnerDto.stream()
+                .map(ItemOwnerDto::getId)
                 .collect(Collectors.toList());
-        List<Booking> bookings = bookingRepository.findBookingsByItemIn(items);
-        List<Comment> comments = commentRepository.findCommentsByItemIn(items);
+        List<Comment> comments = commentRepository.findCommentsByItem_IdIn(itemIds);
         if (comments != null && !comments.isEmpty()) {
+            Map<Long, List<CommentDto>> commentsByItem = comments.stream()
+                    .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                            Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
             for (ItemOwnerDto i : itemsOwnerDto) {
-                i.setComments(comments.stream().filter(c -> Objects.equals(c.getItem().getId(), i.getId()))
-                        .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
+                i.setComments(commentsByItem.getOrDefault(i.getId(), new ArrayList<>()));
             }
         }
-        if (bookings != null && !bookings.isEmpty()) {
-            for (ItemOwnerDto i : itemsOwnerDto) {
-                List<Booking> bookingsOwnerItems = bookings.stream()
-                        .filter(f -> Objects.equals(f.getItem().getId(), i.getId()))
-                        .collect(Collectors.toList());
-                addLastAndNextBookings(i, bookingsOwnerItems);
-            }
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryCache.getAll(itemIds);
+        for (ItemOwnerDto i : itemsOwnerDto) {
+            addLastAndNextBookings(i, summaries.get(i.getId()));
         }
         return itemsOwnerDto;
     }
@@ -81,9 +104,8 @@ public class ItemServiceImpl implements ItemService {
         itemOwnerDto.setComments(comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList()));
-        List<Booking> bookings = bookingRepository.findBookingsByItem_Id(itemOwnerDto.getId());
-        if (bookings != null && !bookings.isEmpty() && Objects.equals(item.getOwner().getId(), userId)) {
-            addLastAndNextBookings(itemOwnerDto, bookings);
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            addLastAndNextBookings(itemOwnerDto, itemBookingSummaryCache.get(itemId));
         }
         return itemOwnerDto;
     }
@@ -93,13 +115,62 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Item> items = itemRepository.search(text, pageable);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
+        if (!itemSearchEngine.isReady()) {
+            Pageable pageable = PageRequest.of(from / size, size);
+            return itemRepository.searchItemDtos(text, pageable);
+        }
+        int offset = from / size * size;
+        List<Long> ids = itemSearchResultCache.get(text, offset, size, () ->
+                itemSearchEngine.search(text, offset, size));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ItemDto> itemDtos = itemRepository.findAvailableItemDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        return ids.stream()
+                .map(itemDtos::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ItemSuggestionDto> getSuggestions(String prefix, Integer limit) {
+        if (prefix.isBlank() || !itemNameSuggester.isReady()) {
+            return Collections.emptyList();
+        }
+        return itemNameSuggester.suggest(prefix, limit);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        userService.validateUserById(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new ObjectNotFoundException(String.format("Вещь с id = %d не найдена", itemId));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        if (!start.isBefore(to)) {
+            throw new ValidationException("Неправильный интервал");
+        }
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (BookingInterval interval : bookingIntervalIndex.findOverlaps(itemId, start, to)) {
+            if (interval.getStart().isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, interval.getStart(), true, null));
+                cursor = interval.getStart();
+            }
+            LocalDateTime end = interval.getEnd().isBefore(to) ? interval.getEnd() : to;
+            if (end.isAfter(cursor)) {
+                slots.add(new AvailabilitySlotDto(cursor, end, false, interval.getStatus()));
+                cursor = end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(cursor, to, true, null));
+        }
+        return new ItemAvailabilityDto(itemId, start, to, slots);
+    }
+
     @Transactional
     @Override
     public ItemDto createItem(Long userId, ItemDto itemDto) {
@@ -109,7 +180,11 @@ public class ItemServiceImpl implements ItemService {
             itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElseThrow(() ->
                     new ObjectNotFoundException(String.format("Запрос с id = %d не был найден", itemDto.getRequestId())));
         }
-        return ItemMapper.toItemDto(itemRepository.save(ItemMapper.toItem(itemDto, user, itemRequest)));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto, user, itemRequest));
+        itemSearchEngine.index(item);
+        evictSearchResults(null, item);
+        itemNameSuggester.index(item);
+        return ItemMapper.toItemDto(item);
     }
 
     @Transactional
@@ -120,6 +195,7 @@ public class ItemServiceImpl implements ItemService {
         if (!Objects.equals(item.getOwner(), user)) {
             throw new ObjectNotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
+        String previousSearchText = ItemSearchResultCache.searchText(item);
         if (itemDto.getName() != null && !itemDto.getName().isBlank()) {
             item.setName(itemDto.getName());
         }
@@ -129,7 +205,11 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        evictSearchResults(previousSearchText, item);
+        itemNameSuggester.index(item);
+        return ItemMapper.toItemDto(item);
     }
 
     @Transactional
@@ -137,8 +217,11 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         User user = userService.getById(userId);
         Item item = getById(itemId);
-        List<Booking> bookings = bookingRepository.findBookingByItem_IdAndStatusOrderByEndAsc(itemId,
-                BookingStatus.APPROVED);
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findBookingByItem_IdAndStatusOrderByEndAsc(itemId,
+                BookingStatus.APPROVED));
+        archivedBookingRepository.findByItem_IdAndStatus(itemId, BookingStatus.APPROVED).stream()
+                .map(BookingMapper::toBooking)
+                .forEach(bookings::add);
         Comment comment = Comment.builder()
                 .text(commentDto.getText())
                 .item(item)
@@ -160,21 +243,24 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new ObjectNotFoundException(String.format("Вещь с id = %d не найдена", itemId)));
     }
 
-    private void addLastAndNextBookings(ItemOwnerDto itemOwnerDto, List<Booking> bookings) {
-        itemOwnerDto.setLastBooking(bookings.stream()
-                .filter(s -> s.getStart().isBefore(LocalDateTime.now()))
-                .filter(s -> Objects.equals(s.getStatus(), BookingStatus.APPROVED))
-                .map(BookingMapper::toBookingItemDto)
-                .max(Comparator.comparing(BookingItemDto::getEnd))
-                .orElse(null)
-        );
-        itemOwnerDto.setNextBooking(bookings.stream()
-                .filter(s -> s.getStart().isAfter(LocalDateTime.now()))
-                .filter(s -> Objects.equals(s.getStatus(), BookingStatus.APPROVED))
-                .map(BookingMapper::toBookingItemDto)
-                .min(Comparator.comparing(BookingItemDto::getStart))
-                .orElse(null)
-        );
+    @Override
+    public List<Item> getByIds(Collection<Long> itemIds) {
+        return itemRepository.findAllWithOwnerByIdIn(itemIds);
+    }
+
+    private void addLastAndNextBookings(ItemOwnerDto itemOwnerDto, ItemBookingSummary summary) {
+        if (summary != null) {
+            itemOwnerDto.setLastBooking(summary.getLastBooking());
+            itemOwnerDto.setNextBooking(summary.getNextBooking());
+        }
+    }
+
+    private void evictSearchResults(String previousSearchText, Item item) {
+        if (itemSearchEngine.matchesSubstrings()) {
+            itemSearchResultCache.evict(previousSearchText, item);
+        } else {
+            itemSearchResultCache.evictAll();
+        }
     }
 
 }
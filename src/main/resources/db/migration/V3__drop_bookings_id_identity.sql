@@ -0,0 +1 @@
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_to_item_id FOREIGN KEY (item_id) REFERENCES items(id),
+    CONSTRAINT fk_bookings_archive_to_booker_id FOREIGN KEY (booker_id) REFERENCES users(id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start_date);
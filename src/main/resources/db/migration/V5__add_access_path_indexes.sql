@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_end_date ON bookings (end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_status_end ON bookings_archive (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_id ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC);
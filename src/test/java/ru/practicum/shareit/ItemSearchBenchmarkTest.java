@@ -0,0 +1,151 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.JpqlItemSearchEngine;
+import ru.practicum.shareit.item.search.LuceneItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает движки поиска вещей: запрос LIKE к базе, инвертированный индекс в памяти и Lucene.
+ * LIKE и индекс должны вернуть одни и те же id, Lucene — те же вещи для целых слов; для каждого
+ * измеряются память, выделенная потоком, и время на один запрос. Подробное сравнение LIKE и Lucene
+ * на большой таблице — {@link ItemSearchJmhBenchmark}.
+ */
+@Slf4j
+@DataJpaTest
+class ItemSearchBenchmarkTest {
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "палатка",
+            "велосипед", "самокат", "пила", "рубанок", "стремянка", "мангал", "компрессор"};
+    private static final int ITEMS = 3_000;
+    private static final int PAGE = 20;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @TempDir
+    Path directory;
+
+    private ItemSearchEngine jpql;
+    private ItemSearchEngine index;
+    private LuceneItemSearchEngine lucene;
+
+    @BeforeEach
+    void setUp() {
+        User owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        Random random = new Random(42);
+        for (int i = 0; i < ITEMS; i++) {
+            testEntityManager.persist(Item.builder()
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + i)
+                    .description(WORDS[random.nextInt(WORDS.length)] + " и " + WORDS[random.nextInt(WORDS.length)])
+                    .available(random.nextInt(10) > 0)
+                    .owner(owner)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        jpql = new JpqlItemSearchEngine(itemRepository);
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+        lucene = new LuceneItemSearchEngine(itemRepository, directory);
+        lucene.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        lucene.close();
+    }
+
+    @Test
+    void indexReturnsSameIdsWithLessAllocationTest() {
+        for (String text : List.of("ДРЕЛЬ", "ёрт", "пила и", "стремянка и мангал")) {
+            assertEquals(jpql.search(text, 0, PAGE), index.search(text, 0, PAGE), text);
+        }
+
+        Result like = measure(jpql, "рубан");
+        Result inverted = measure(index, "рубан");
+
+        log.info("search: like {} B/{} us per query, index {} B/{} us per query",
+                like.bytes, like.micros, inverted.bytes, inverted.micros);
+        assertTrue(inverted.bytes < like.bytes, String.format("like: %d B, index: %d B",
+                like.bytes, inverted.bytes));
+    }
+
+    @Test
+    void luceneFindsSameItemsForWholeWordsTest() {
+        for (String text : List.of("ДРЕЛЬ", "стремянка", "мангал")) {
+            List<Long> expected = jpql.search(text, 0, ITEMS);
+            List<Long> found = lucene.search(text, 0, ITEMS);
+            Collections.sort(found);
+            assertEquals(expected, found, text);
+        }
+
+        Result like = measure(jpql, "рубан");
+        Result fullText = measure(lucene, "рубан");
+
+        log.info("search: like {} B/{} us per query, lucene {} B/{} us per query",
+                like.bytes, like.micros, fullText.bytes, fullText.micros);
+    }
+
+    private Result measure(ItemSearchEngine engine, String text) {
+        for (int i = 0; i < WARMUP; i++) {
+            engine.search(text, 0, PAGE);
+            testEntityManager.clear();
+        }
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocated = allocatedBytes();
+            long started = System.nanoTime();
+            List<Long> ids = engine.search(text, 0, PAGE);
+            nanos += System.nanoTime() - started;
+            bytes += allocatedBytes() - allocated;
+            assertFalse(ids.isEmpty());
+            testEntityManager.clear();
+        }
+        return new Result(bytes / ITERATIONS, TimeUnit.NANOSECONDS.toMicros(nanos / ITERATIONS));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class Result {
+
+        private final long bytes;
+        private final long micros;
+
+        Result(long bytes, long micros) {
+            this.bytes = bytes;
+            this.micros = micros;
+        }
+    }
+}
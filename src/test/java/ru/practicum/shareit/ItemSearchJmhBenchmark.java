@@ -0,0 +1,123 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.JpqlItemSearchEngine;
+import ru.practicum.shareit.item.search.LuceneItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH-сравнение поиска вещей запросом LIKE к базе (H2 профиля test) и индексом Lucene на диске.
+ * В surefire не запускается; запуск:
+ * mvn -B test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main ItemSearchJmhBenchmark"
+ * Размер таблицы и запросы меняются параметрами JMH, например -p items=1000000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchJmhBenchmark {
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "шуруповёрт", "лестница", "палатка",
+            "велосипед", "самокат", "пила", "рубанок", "стремянка", "мангал", "компрессор"};
+    private static final int PAGE = 20;
+
+    @Param("100000")
+    private int items;
+
+    @Param({"дрель", "рубан", "экскаватор"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private JpqlItemSearchEngine like;
+    private LuceneItemSearchEngine lucene;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("shareit.search.engine=jpql", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        User owner = context.getBean(UserRepository.class)
+                .save(User.builder().name("owner").email("owner@mail.ru").build());
+        Random random = new Random(42);
+        List<Item> batch = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            batch.add(Item.builder()
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + i)
+                    .description(WORDS[random.nextInt(WORDS.length)] + " и " + WORDS[random.nextInt(WORDS.length)])
+                    .available(random.nextInt(10) > 0)
+                    .owner(owner)
+                    .build());
+            if (batch.size() == 1000 || i == items - 1) {
+                itemRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        like = new JpqlItemSearchEngine(itemRepository);
+        directory = Files.createTempDirectory("item-index");
+        lucene = new LuceneItemSearchEngine(itemRepository, directory);
+        transactionTemplate.executeWithoutResult(status -> lucene.rebuild());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        lucene.close();
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Long> like() {
+        return like.search(text, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> lucene() {
+        return lucene.search(text, 0, PAGE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemSearchJmhBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет миграции на базе, где бронирования уже есть: так выглядит база, созданная
+ * прежним schema.sql и взятая под Flyway с baseline на версии 1.
+ */
+class MigrationTest {
+
+    @Test
+    void bookingsSequenceStartsAboveExistingIdsTest() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1", "test", "test");
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, is_available, owner_id) VALUES (1, 'item', TRUE, 1)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (120, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 1, 'APPROVED')");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR bookings_seq", Long.class);
+        assertEquals(170L, next);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryCache;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет, что сборка списка вещей владельца растёт линейно: при вдвое большем числе вещей
+ * и комментариев время сборки должно вырасти примерно вдвое, а не вчетверо, как при переборе
+ * всех комментариев для каждой вещи.
+ */
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class OwnerItemsBenchmarkTest {
+
+    private static final int ITEMS = 200;
+    private static final int COMMENTS_PER_ITEM = 250;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemBookingSummaryCache itemBookingSummaryCache;
+    @InjectMocks
+    private ItemServiceImpl itemService;
+
+    @Test
+    void ownerItemsAssemblyScalesLinearlyTest() {
+        long single = measure(1L, ITEMS);
+        long doubled = measure(2L, ITEMS * 2);
+
+        log.info("owner items: {} items {} us, {} items {} us", ITEMS, single, ITEMS * 2, doubled);
+        assertTrue(doubled < single * 3, String.format("%d items: %d us, %d items: %d us",
+                ITEMS, single, ITEMS * 2, doubled));
+    }
+
+    /**
+     * Лучшее время сборки из ITERATIONS, мкс: минимум меньше всего зависит от сборки мусора и соседей.
+     */
+    private long measure(Long ownerId, int items) {
+        User author = User.builder().id(100L).name("author").email("author@mail.ru").build();
+        List<ItemOwnerDto> dtos = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.now();
+        for (long id = 1; id <= items; id++) {
+            Item item = Item.builder().id(id).name("item" + id).available(true).build();
+            dtos.add(ItemOwnerDto.builder().id(id).name(item.getName()).available(true).build());
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(Comment.builder()
+                        .id(id * COMMENTS_PER_ITEM + i)
+                        .text("text")
+                        .item(item)
+                        .author(author)
+                        .created(created)
+                        .build());
+            }
+        }
+        when(itemRepository.findItemOwnerDtosByOwnerId(eq(ownerId), any())).thenReturn(dtos);
+        when(commentRepository.findCommentsByItem_IdIn(anyList())).thenReturn(comments);
+        when(itemBookingSummaryCache.getAll(anyList())).thenReturn(Map.of());
+        for (int i = 0; i < WARMUP; i++) {
+            itemService.getOwnerItems(ownerId, 0, items);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            List<ItemOwnerDto> result = itemService.getOwnerItems(ownerId, 0, items);
+            best = Math.min(best, System.nanoTime() - started);
+            assertEquals(COMMENTS_PER_ITEM, result.get(items - 1).getComments().size());
+        }
+        return TimeUnit.NANOSECONDS.toMicros(best);
+    }
+}
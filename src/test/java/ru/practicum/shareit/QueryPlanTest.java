@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что миграции создают индексы под запросы репозиториев
+ * и что H2 выбирает их вместо полного просмотра таблиц. Схема строится только миграциями,
+ * Hibernate лишь сверяет с ней сущности.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allMigrationsAreAppliedTest() {
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" " +
+                        "WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class));
+    }
+
+    @Test
+    void migrationsCreateCompositeIndexesTest() {
+        assertEquals(List.of("BOOKER_ID", "START_DATE"), indexColumns("IX_BOOKINGS_BOOKER_START"));
+        assertEquals(List.of("ITEM_ID", "START_DATE"), indexColumns("IX_BOOKINGS_ITEM_START"));
+        assertEquals(List.of("ITEM_ID", "STATUS", "END_DATE"), indexColumns("IX_BOOKINGS_ITEM_STATUS_END"));
+        assertEquals(List.of("OWNER_ID", "ID"), indexColumns("IX_ITEMS_OWNER_ID"));
+        assertEquals(List.of("REQUEST_ID"), indexColumns("IX_ITEMS_REQUEST_ID"));
+        assertEquals(List.of("ITEM_ID"), indexColumns("IX_COMMENTS_ITEM_ID"));
+        assertEquals(List.of("REQUESTOR_ID", "CREATED"), indexColumns("IX_REQUESTS_REQUESTOR_CREATED"));
+    }
+
+    @Test
+    void bookingQueriesUseIndexesTest() {
+        assertIndexed("SELECT * FROM bookings WHERE booker_id = 1 ORDER BY start_date DESC");
+        assertIndexed("SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id " +
+                "WHERE i.owner_id = 1 ORDER BY b.start_date DESC");
+        assertTrue(explain("SELECT * FROM bookings WHERE item_id = 1 AND status = 'APPROVED' " +
+                "AND end_date < CURRENT_TIMESTAMP").contains("IX_BOOKINGS_ITEM_STATUS_END"));
+    }
+
+    @Test
+    void itemCommentAndRequestQueriesUseIndexesTest() {
+        assertIndexed("SELECT * FROM items WHERE owner_id = 1 ORDER BY id");
+        assertIndexed("SELECT * FROM items WHERE request_id IN (1, 2)");
+        assertIndexed("SELECT * FROM comments WHERE item_id = 1");
+        assertIndexed("SELECT * FROM requests WHERE requestor_id = 1 ORDER BY created DESC");
+    }
+
+    private void assertIndexed(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private List<String> indexColumns(String indexName) {
+        return jdbcTemplate.queryForList("SELECT column_name FROM information_schema.index_columns " +
+                "WHERE index_name = ? ORDER BY ordinal_position", String.class, indexName);
+    }
+}
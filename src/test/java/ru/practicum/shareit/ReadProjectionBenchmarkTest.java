@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает чтение списков через сущности и маппер с выборкой проекцией в DTO:
+ * объём памяти, выделенной потоком, и время на один запрос.
+ */
+@Slf4j
+@DataJpaTest
+class ReadProjectionBenchmarkTest {
+
+    private static final int ITEMS = 50;
+    private static final int BOOKINGS = 2_000;
+    private static final int PAGE = 500;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = testEntityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(testEntityManager.persist(Item.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            testEntityManager.persist(Booking.builder()
+                    .item(items.get(i % ITEMS))
+                    .booker(booker)
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void bookingListProjectionAllocatesLessTest() {
+        BookingQuery query = BookingQuery.builder()
+                .role(BookingRole.OWNER)
+                .userId(owner.getId())
+                .state(BookingState.ALL)
+                .time(LocalDateTime.now())
+                .offset(0)
+                .limit(PAGE)
+                .build();
+
+        Result entities = measure(() -> bookingRepository.findByState(query).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList()));
+        Result projection = measure(() -> bookingRepository.findDtoByState(query));
+
+        report("bookings", entities, projection);
+        assertTrue(projection.bytes < entities.bytes, String.format("entities: %d B, projection: %d B",
+                entities.bytes, projection.bytes));
+    }
+
+    @Test
+    void itemSearchProjectionAllocatesLessTest() {
+        PageRequest page = PageRequest.of(0, ITEMS);
+
+        Result entities = measure(() -> itemRepository.search("item", page).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
+        Result projection = measure(() -> itemRepository.searchItemDtos("item", page));
+
+        report("items", entities, projection);
+        assertTrue(projection.bytes < entities.bytes, String.format("entities: %d B, projection: %d B",
+                entities.bytes, projection.bytes));
+    }
+
+    private Result measure(Supplier<List<?>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+            testEntityManager.clear();
+        }
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocated = allocatedBytes();
+            long started = System.nanoTime();
+            List<?> rows = read.get();
+            nanos += System.nanoTime() - started;
+            bytes += allocatedBytes() - allocated;
+            assertFalse(rows.isEmpty());
+            testEntityManager.clear();
+        }
+        return new Result(bytes / ITERATIONS, TimeUnit.NANOSECONDS.toMicros(nanos / ITERATIONS));
+    }
+
+    private void report(String list, Result entities, Result projection) {
+        log.info("{}: entities {} B/{} us per query, projection {} B/{} us per query", list,
+                entities.bytes, entities.micros, projection.bytes, projection.micros);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class Result {
+
+        private final long bytes;
+        private final long micros;
+
+        Result(long bytes, long micros) {
+            this.bytes = bytes;
+            this.micros = micros;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(BookingArchiver.class)
+class BookingArchiverTest {
+
+    /**
+     * База хранит время с точностью до микросекунд, поэтому и в тесте время без наносекунд.
+     */
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = testEntityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        item = testEntityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void archiveMovesOnlyOldFinishedBookingsTest() {
+        Booking old = persistBooking(NOW.minusMonths(12), NOW.minusMonths(11), BookingStatus.APPROVED);
+        Booking oldWaiting = persistBooking(NOW.minusMonths(12), NOW.minusMonths(11), BookingStatus.WAITING);
+        Booking recent = persistBooking(NOW.minusMonths(2), NOW.minusMonths(1), BookingStatus.APPROVED);
+        testEntityManager.flush();
+
+        int moved = bookingArchiver.archive(NOW);
+        testEntityManager.clear();
+
+        assertEquals(1, moved);
+        assertTrue(bookingRepository.findById(old.getId()).isEmpty());
+        assertTrue(bookingRepository.findById(oldWaiting.getId()).isPresent());
+        assertTrue(bookingRepository.findById(recent.getId()).isPresent());
+        ArchivedBooking archived = archivedBookingRepository.findById(old.getId()).orElseThrow();
+        assertEquals(old.getStart(), archived.getStart());
+        assertEquals(booker.getId(), archived.getBooker().getId());
+        assertEquals(0, bookingArchiver.archive(NOW));
+    }
+
+    @Test
+    void archivedBookingsAreSearchableByStateTest() {
+        Booking old = persistBooking(NOW.minusMonths(12), NOW.minusMonths(11), BookingStatus.APPROVED);
+        testEntityManager.flush();
+        bookingArchiver.archive(NOW);
+        testEntityManager.clear();
+
+        BookingQuery query = BookingQuery.builder()
+                .role(BookingRole.OWNER)
+                .userId(owner.getId())
+                .state(BookingState.PAST)
+                .time(NOW)
+                .offset(0)
+                .limit(10)
+                .build();
+        assertEquals(List.of(old.getId()), archivedBookingRepository.findByState(query).stream()
+                .map(ArchivedBooking::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return testEntityManager.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.async;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.enums.BookingRequestStatus;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private ItemLockManager itemLockManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingWriteQueue queue;
+    private BookingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        queue = new BookingWriteQueue(10, 100);
+        writer = new BookingWriter(queue, bookingService, itemLockManager, transactionManager, 10, 0);
+    }
+
+    @Test
+    void writeBatchInOneTransactionTest() throws InterruptedException {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(bookingService.createBookings(eq(1L), any())).thenReturn(List.of(
+                new BookingBatchResultDto(0, BookingDto.builder().id(10L).build(), null),
+                new BookingBatchResultDto(1, null, "Вещь с id = 2 уже забронирована на эти даты")));
+        when(bookingService.createBookings(eq(2L), any())).thenReturn(List.of(
+                new BookingBatchResultDto(0, BookingDto.builder().id(11L).build(), null)));
+        BookingRequestDto first = queue.submit(1L, booking(1L));
+        BookingRequestDto second = queue.submit(2L, booking(3L));
+        BookingRequestDto third = queue.submit(1L, booking(2L));
+
+        writer.write(queue.take(10, 0, 0));
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(itemLockManager).lockForTransaction(Set.of(1L, 2L, 3L));
+        assertEquals(BookingRequestStatus.CREATED, status(first));
+        assertEquals(10L, queue.get(first.getRequestId()).orElseThrow().getBooking().getId());
+        assertEquals(BookingRequestStatus.CREATED, status(second));
+        assertEquals(BookingRequestStatus.FAILED, status(third));
+        assertEquals("Вещь с id = 2 уже забронирована на эти даты",
+                queue.get(third.getRequestId()).orElseThrow().getError());
+        assertEquals(2, writer.getWrittenTotal());
+        assertEquals(1, writer.getFailedTotal());
+    }
+
+    @Test
+    void writeBatchAfterRollbackRetriesUsersSeparatelyTest() throws InterruptedException {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(bookingService.createBookings(eq(1L), any())).thenReturn(List.of(
+                new BookingBatchResultDto(0, BookingDto.builder().id(10L).build(), null)));
+        when(bookingService.createBookings(eq(2L), any()))
+                .thenThrow(new ObjectNotFoundException("Пользователь с id = 2 не найден"));
+        BookingRequestDto first = queue.submit(1L, booking(1L));
+        BookingRequestDto second = queue.submit(2L, booking(2L));
+
+        writer.write(queue.take(10, 0, 0));
+
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(BookingRequestStatus.CREATED, status(first));
+        assertEquals(BookingRequestStatus.FAILED, status(second));
+        assertEquals("Пользователь с id = 2 не найден", queue.get(second.getRequestId()).orElseThrow().getError());
+    }
+
+    @Test
+    void takeCollectsNoMoreThanBatchSizeTest() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            queue.submit(1L, booking(1L));
+        }
+
+        assertEquals(2, queue.take(2, 0, 0).size());
+        assertEquals(1, queue.take(2, 0, 0).size());
+        assertEquals(0, queue.take(2, 0, 0).size());
+    }
+
+    @Test
+    void submitToFullQueueIsRejectedTest() {
+        BookingWriteQueue small = new BookingWriteQueue(1, 100);
+        small.submit(1L, booking(1L));
+
+        assertThrows(ServiceOverloadedException.class, () -> small.submit(1L, booking(1L)));
+        assertEquals(1, small.getAcceptedTotal());
+        assertEquals(1, small.getRejectedTotal());
+        assertEquals(1, small.getQueueDepth());
+    }
+
+    @Test
+    void pendingRequestsAreNotEvictedByFinishedLimitTest() throws InterruptedException {
+        BookingWriteQueue small = new BookingWriteQueue(10, 1);
+        BookingRequestDto first = small.submit(1L, booking(1L));
+        BookingRequestDto second = small.submit(1L, booking(2L));
+        BookingRequestDto third = small.submit(1L, booking(3L));
+
+        assertEquals(BookingRequestStatus.PENDING, small.get(first.getRequestId()).orElseThrow().getStatus());
+        assertEquals(BookingRequestStatus.PENDING, small.get(third.getRequestId()).orElseThrow().getStatus());
+
+        List<PendingBooking> batch = small.take(2, 0, 0);
+        small.complete(batch.get(0), BookingDto.builder().id(10L).build());
+        small.fail(batch.get(1), "Вещь с id = 2 уже забронирована на эти даты");
+
+        assertTrue(small.get(first.getRequestId()).isEmpty());
+        assertEquals(BookingRequestStatus.FAILED, small.get(second.getRequestId()).orElseThrow().getStatus());
+        assertEquals(BookingRequestStatus.PENDING, small.get(third.getRequestId()).orElseThrow().getStatus());
+    }
+
+    private BookingRequestStatus status(BookingRequestDto request) {
+        return queue.get(request.getRequestId()).orElseThrow().getStatus();
+    }
+
+    private BookingCreateDto booking(Long itemId) {
+        return BookingCreateDto.builder()
+                .itemId(itemId)
+                .start(START)
+                .end(START.plusDays(1))
+                .build();
+    }
+}
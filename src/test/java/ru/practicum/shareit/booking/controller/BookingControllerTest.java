@@ -10,11 +10,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.ItemOccupancyDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
+import ru.practicum.shareit.booking.enums.BookingRequestStatus;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.occupancy.OccupancyBucket;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -28,6 +38,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -124,8 +136,8 @@ class BookingControllerTest {
 
     @Test
     void shouldGetBookingsCurrentUser_ReturnEmptyList() throws Exception {
-        when(bookingService.getBookingsCurrentUser(1L, "REJECTED", 0, 10))
-                .thenReturn(Collections.emptyList());
+        when(bookingService.getBookingsCurrentUser(1L, "rejected", 0, 500, null))
+                .thenReturn(new BookingPageDto(Collections.emptyList(), null));
         mockMvc.perform(get(url)
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "rejected"))
@@ -137,8 +149,8 @@ class BookingControllerTest {
     @Test
     void shouldGetBookingsCurrentUser_ReturnListBookings() throws Exception {
         BookingDto bookingDto = bookingDtoBuilder.build();
-        when(bookingService.getBookingsCurrentUser(1L, "WAITING", 0, 10))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getBookingsCurrentUser(1L, "WAITING", 0, 10, null))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
         mockMvc.perform(get(url)
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "WAITING")
@@ -150,6 +162,56 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.size()", is(1)));
     }
 
+    @Test
+    void shouldGetBookingsAllItemCurrentUserCompact_ReturnSideTablesWithoutRepeats() throws Exception {
+        BookingDto first = bookingDtoBuilder.build();
+        BookingDto second = bookingDtoBuilder.id(2L).build();
+        BookingDto other = bookingDtoBuilder.id(3L)
+                .item(itemDtoBuilder.id(2L).build())
+                .booker(userDtoBuilder.id(2L).build())
+                .build();
+        when(bookingService.getBookingsAllItemCurrentUser(1L, "ALL", 0, 500, null))
+                .thenReturn(new BookingPageDto(List.of(first, second, other), "next"));
+        mockMvc.perform(get(url + "/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("view", "compact"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.bookings", hasSize(3)))
+                .andExpect(jsonPath("$.bookings[1].id", is(2)))
+                .andExpect(jsonPath("$.bookings[1].itemId", is(1)))
+                .andExpect(jsonPath("$.bookings[2].bookerId", is(2)))
+                .andExpect(jsonPath("$.bookings[0].item").doesNotExist())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].id", is(2)))
+                .andExpect(jsonPath("$.users", hasSize(2)))
+                .andExpect(jsonPath("$.users[0].email", is("email@email.ru")));
+    }
+
+    @Test
+    void shouldGetBookingsCurrentUserIfViewFail_ReturnStatus400() throws Exception {
+        mockMvc.perform(get(url)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("view", "tiny"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetBookingsCurrentUserWithCursor_ReturnNextCursorHeader() throws Exception {
+        BookingDto bookingDto = bookingDtoBuilder.build();
+        when(bookingService.getBookingsCurrentUser(1L, "ALL", 0, 1, "cursor"))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
+        mockMvc.perform(get(url)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1")
+                        .param("cursor", "cursor"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
     @Test
     void shouldGetBookingsCurrentUserIfFromNegative_ReturnStatus400() throws Exception {
         mockMvc.perform(get(url)
@@ -165,7 +227,7 @@ class BookingControllerTest {
 
     @Test
     void shouldGetBookingsCurrentUserIfStateFail_ReturnStatus400() throws Exception {
-        when(bookingService.getBookingsCurrentUser(1L, "FAIL", 0, 10))
+        when(bookingService.getBookingsCurrentUser(1L, "FAIL", 0, 10, null))
                 .thenThrow(new UnsupportedStateException(String.format("Unknown state: %s", "FAIL")));
         mockMvc.perform(get(url)
                         .header("X-Sharer-User-Id", 1)
@@ -179,8 +241,8 @@ class BookingControllerTest {
 
     @Test
     void shouldGetBookingsAllItemCurrentUser_ReturnEmptyList() throws Exception {
-        when(bookingService.getBookingsAllItemCurrentUser(1L, "REJECTED", 0, 10))
-                .thenReturn(Collections.emptyList());
+        when(bookingService.getBookingsAllItemCurrentUser(1L, "rejected", 0, 500, null))
+                .thenReturn(new BookingPageDto(Collections.emptyList(), null));
         mockMvc.perform(get(url + "/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "rejected"))
@@ -192,8 +254,8 @@ class BookingControllerTest {
     @Test
     void shouldGetBookingsAllItemCurrentUser_ReturnListBookings() throws Exception {
         BookingDto bookingDto = bookingDtoBuilder.build();
-        when(bookingService.getBookingsAllItemCurrentUser(1L, "WAITING", 0, 10))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getBookingsAllItemCurrentUser(1L, "WAITING", 0, 10, null))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
         mockMvc.perform(get(url + "/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", "WAITING")
@@ -220,7 +282,7 @@ class BookingControllerTest {
 
     @Test
     void shouldGetBookingsAllItemCurrentUserIfStateFail_ReturnStatus400() throws Exception {
-        when(bookingService.getBookingsAllItemCurrentUser(1L, "FAIL", 0, 10))
+        when(bookingService.getBookingsAllItemCurrentUser(1L, "FAIL", 0, 10, null))
                 .thenThrow(new UnsupportedStateException(String.format("Unknown state: %s", "FAIL")));
         mockMvc.perform(get(url + "/owner")
                         .header("X-Sharer-User-Id", 1)
@@ -250,6 +312,97 @@ class BookingControllerTest {
 
     }
 
+    @Test
+    void createBookings_ReturnStatus200AndResultsTest() throws Exception {
+        BookingCreateDto bookingCreateDto = bookingCreateDtoBuilder.build();
+        BookingDto bookingDto = bookingDtoBuilder.build();
+        String json = mapper.writeValueAsString(List.of(bookingCreateDto, bookingCreateDto));
+
+        when(bookingService.createBookings(eq(1L), any())).thenReturn(List.of(
+                new BookingBatchResultDto(0, bookingDto, null),
+                new BookingBatchResultDto(1, null, "Вещь с id = 1 уже забронирована на эти даты")));
+
+        mockMvc.perform(post(url + "/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId().intValue())))
+                .andExpect(jsonPath("$[1].error", is("Вещь с id = 1 уже забронирована на эти даты")));
+    }
+
+    @Test
+    void submitBookingAsync_ReturnStatus202AndLocationTest() throws Exception {
+        BookingCreateDto bookingCreateDto = bookingCreateDtoBuilder.build();
+        String json = mapper.writeValueAsString(bookingCreateDto);
+
+        when(bookingService.submitBooking(eq(1L), any()))
+                .thenReturn(new BookingRequestDto("abc", 1L, BookingRequestStatus.PENDING, null, null));
+
+        mockMvc.perform(post(url)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/bookings/requests/abc"))
+                .andExpect(jsonPath("$.requestId", is("abc")))
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.userId").doesNotExist());
+    }
+
+    @Test
+    void submitBookingAsyncWhenQueueIsFull_ReturnStatus503Test() throws Exception {
+        String json = mapper.writeValueAsString(bookingCreateDtoBuilder.build());
+
+        when(bookingService.submitBooking(eq(1L), any()))
+                .thenThrow(new ServiceOverloadedException("Очередь бронирований переполнена"));
+
+        mockMvc.perform(post(url)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getBookingRequest_ReturnStatus200AndBookingTest() throws Exception {
+        BookingDto bookingDto = bookingDtoBuilder.build();
+
+        when(bookingService.getBookingRequest(1L, "abc"))
+                .thenReturn(new BookingRequestDto("abc", 1L, BookingRequestStatus.CREATED, bookingDto, null));
+
+        mockMvc.perform(get(url + "/requests/abc")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CREATED")))
+                .andExpect(jsonPath("$.booking.id", is(bookingDto.getId().intValue())));
+    }
+
+    @Test
+    void getBookingRequestOfOtherUser_ReturnStatus404Test() throws Exception {
+        when(bookingService.getBookingRequest(2L, "abc"))
+                .thenThrow(new ObjectNotFoundException("Заявка abc не найдена"));
+
+        mockMvc.perform(get(url + "/requests/abc")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createBookingsIfEmpty_ReturnStatus400Test() throws Exception {
+        mockMvc.perform(post(url + "/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createBookingIfItemIdNull_ReturnStatus400Test() throws Exception {
         BookingCreateDto bookingCreateDto = bookingCreateDtoBuilder.itemId(null).build();
@@ -363,4 +516,59 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().json("{\"error\":\"Booking not available: id=1\"}"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void approveAll_ReturnStatus200AndResultsTest() throws Exception {
+        when(bookingService.approveBookings(1L, List.of(1L, 2L), true)).thenReturn(List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, null, "Бронирование с id = 2 недоступно")));
+
+        mockMvc.perform(patch(url + "/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Бронирование с id = 2 недоступно")));
+    }
+
+    @Test
+    void countBookings_ReturnStatus200AndCountsTest() throws Exception {
+        when(bookingService.countBookingsCurrentUser(1L)).thenReturn(new BookingCountsDto(6, 1, 2, 3, 1, 0));
+        when(bookingService.countBookingsAllItemCurrentUser(1L)).thenReturn(new BookingCountsDto(2, 0, 2, 0, 0, 1));
+
+        mockMvc.perform(get(url + "/counts")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.future", is(3)));
+        mockMvc.perform(get(url + "/owner/counts")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.past", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
+    @Test
+    void getOccupancyTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2022, 9, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(bookingService.getOccupancy(1L, from, to, "week")).thenReturn(new OccupancyDto(from, to,
+                OccupancyBucket.WEEK, List.of(from), List.of(new ItemOccupancyDto(2L, new double[]{12},
+                new double[]{25}))));
+
+        mockMvc.perform(get(url + "/owner/occupancy")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2022-09-01T00:00:00")
+                        .param("to", "2022-09-03T00:00:00")
+                        .param("bucket", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket", is("WEEK")))
+                .andExpect(jsonPath("$.items[0].itemId", is(2)))
+                .andExpect(jsonPath("$.items[0].bookedHours[0]", is(12.0)))
+                .andExpect(jsonPath("$.items[0].utilization[0]", is(25.0)));
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.counter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.StatusCount;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCountersTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    private BookingCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new BookingCounters(bookingRepository, archivedBookingRepository, 1);
+    }
+
+    @Test
+    void countLoadsOnceAndAppliesEventsTest() {
+        when(bookingRepository.countByBookerGroupByStatus(BOOKER_ID)).thenReturn(List.of(
+                statusCount(BookingStatus.WAITING, 2L), statusCount(BookingStatus.APPROVED, 3L)));
+        when(archivedBookingRepository.countByBookerGroupByStatus(BOOKER_ID)).thenReturn(List.of(
+                statusCount(BookingStatus.REJECTED, 4L), statusCount(BookingStatus.APPROVED, 5L)));
+        when(bookingRepository.countCurrentByBooker(BOOKER_ID, NOW)).thenReturn(1L);
+        when(bookingRepository.countFutureByBooker(BOOKER_ID, NOW)).thenReturn(2L);
+
+        BookingCountsDto counts = counters.count(BookingRole.BOOKER, BOOKER_ID, NOW);
+
+        assertEquals(14, counts.getAll());
+        assertEquals(1, counts.getCurrent());
+        assertEquals(2, counts.getFuture());
+        assertEquals(11, counts.getPast());
+        assertEquals(2, counts.getWaiting());
+        assertEquals(4, counts.getRejected());
+
+        counters.onBookingEvent(event(BookingEventType.CREATED, BookingStatus.WAITING));
+        counters.onBookingEvent(event(BookingEventType.REJECTED, BookingStatus.REJECTED));
+        counts = counters.count(BookingRole.BOOKER, BOOKER_ID, NOW);
+
+        assertEquals(15, counts.getAll());
+        assertEquals(2, counts.getWaiting());
+        assertEquals(5, counts.getRejected());
+        verify(bookingRepository, times(1)).countByBookerGroupByStatus(BOOKER_ID);
+    }
+
+    @Test
+    void countForOwnerUsesOwnerQueriesTest() {
+        when(bookingRepository.countByOwnerGroupByStatus(OWNER_ID)).thenReturn(List.of(
+                statusCount(BookingStatus.WAITING, 1L)));
+        when(archivedBookingRepository.countByOwnerGroupByStatus(OWNER_ID)).thenReturn(List.of());
+        when(bookingRepository.countCurrentByOwner(OWNER_ID, NOW)).thenReturn(0L);
+        when(bookingRepository.countFutureByOwner(OWNER_ID, NOW)).thenReturn(1L);
+
+        counters.onBookingEvent(event(BookingEventType.CREATED, BookingStatus.WAITING));
+        BookingCountsDto counts = counters.count(BookingRole.OWNER, OWNER_ID, NOW);
+
+        assertEquals(1, counts.getAll());
+        assertEquals(1, counts.getFuture());
+        assertEquals(1, counts.getWaiting());
+    }
+
+    @Test
+    void leastRecentlyUsedCountersAreEvictedTest() {
+        when(bookingRepository.countByBookerGroupByStatus(BOOKER_ID)).thenReturn(List.of(
+                statusCount(BookingStatus.WAITING, 1L)));
+        when(bookingRepository.countByOwnerGroupByStatus(OWNER_ID)).thenReturn(List.of());
+
+        counters.count(BookingRole.BOOKER, BOOKER_ID, NOW);
+        counters.count(BookingRole.BOOKER, BOOKER_ID, NOW);
+        counters.count(BookingRole.OWNER, OWNER_ID, NOW);
+        counters.onBookingEvent(event(BookingEventType.CREATED, BookingStatus.WAITING));
+        BookingCountsDto counts = counters.count(BookingRole.BOOKER, BOOKER_ID, NOW);
+
+        assertEquals(1, counts.getWaiting());
+        verify(bookingRepository, times(2)).countByBookerGroupByStatus(BOOKER_ID);
+    }
+
+    private BookingEventDto event(BookingEventType type, BookingStatus status) {
+        return BookingEventDto.builder()
+                .type(type)
+                .bookingId(1L)
+                .itemId(1L)
+                .ownerId(OWNER_ID)
+                .bookerId(BOOKER_ID)
+                .status(status)
+                .start(NOW.plusDays(1))
+                .end(NOW.plusDays(2))
+                .build();
+    }
+
+    private StatusCount statusCount(BookingStatus status, Long total) {
+        return new StatusCount() {
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.detail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingDetailCacheTest {
+
+    private final List<Collection<Long>> published = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, BookingDetail> loader = id -> {
+        loads.incrementAndGet();
+        return new BookingDetail(BookingDto.builder().id(id).build(), 1L, 2L);
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getLoadsOnceAndCountsHitsTest() {
+        BookingDetailCache cache = cache(10, Duration.ofMinutes(1));
+
+        BookingDetail first = cache.get(1L, loader);
+        BookingDetail second = cache.get(1L, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    void getAfterTtlReloadsTest() {
+        BookingDetailCache cache = cache(10, Duration.ZERO);
+
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void leastRecentlyReadEntryIsEvictedTest() {
+        BookingDetailCache cache = cache(2, Duration.ofMinutes(1));
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+
+        cache.get(3L, loader);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getSize());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void evictOutsideTransactionPublishesImmediatelyTest() {
+        BookingDetailCache cache = cache(10, Duration.ofMinutes(1));
+        cache.get(1L, loader);
+
+        cache.evict(1L);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(List.of(List.of(1L)), published);
+    }
+
+    @Test
+    void evictInTransactionPublishesOnlyAfterCommitTest() {
+        BookingDetailCache cache = cache(10, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(List.of(1L, 2L));
+        cache.get(1L, loader);
+        assertTrue(published.isEmpty());
+        assertEquals(1, cache.getSize());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(List.of(List.of(1L, 2L)), published);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void loadRacingWithEvictIsNotCachedTest() {
+        BookingDetailCache cache = cache(10, Duration.ofMinutes(1));
+
+        cache.get(1L, id -> {
+            cache.evictLocal(List.of(id));
+            return loader.apply(id);
+        });
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    private BookingDetailCache cache(int maxEntries, Duration ttl) {
+        return new BookingDetailCache(published::add, maxEntries, ttl, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.exception.SubscriptionLimitException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingEventRegistryTest {
+
+    private BookingEventRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new BookingEventRegistry(List.of(), 3, 2, 2, 60_000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void subscribeRespectsLimitsTest() {
+        registry.subscribe(1L);
+        registry.subscribe(1L);
+        assertThrows(SubscriptionLimitException.class, () -> registry.subscribe(1L));
+        registry.subscribe(2L);
+        assertThrows(SubscriptionLimitException.class, () -> registry.subscribe(3L));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void subscriberQueueIsBoundedTest() throws Exception {
+        BookingSubscriber subscriber = new BookingSubscriber(1L, new SseEmitter(), 2);
+
+        assertTrue(subscriber.offer(event(1L)));
+        assertTrue(subscriber.offer(event(2L)));
+        assertFalse(subscriber.offer(event(3L)));
+
+        assertTrue(subscriber.startDrain());
+        assertFalse(subscriber.startDrain());
+        assertFalse(subscriber.drain());
+        assertFalse(subscriber.startDrain());
+        assertTrue(subscriber.offer(event(4L)));
+    }
+
+    @Test
+    void publishSendsOneFramedEventToOwnerAndBookerTest() throws Exception {
+        Map<Long, RecordingEmitter> emitters = new ConcurrentHashMap<>();
+        BookingEventRegistry recording = new BookingEventRegistry(List.of(), 10, 2, 10, 60_000, 2) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return new RecordingEmitter();
+            }
+        };
+        try {
+            emitters.put(1L, (RecordingEmitter) recording.subscribe(1L));
+            emitters.put(2L, (RecordingEmitter) recording.subscribe(2L));
+            BookingEventDto event = event(5L);
+
+            recording.publish(event);
+
+            for (RecordingEmitter emitter : emitters.values()) {
+                assertEquals(List.of("event:APPROVED\ndata:", event, "\n\n"), emitter.awaitParts(3));
+            }
+            assertEquals(2, recording.size());
+        } finally {
+            recording.shutdown();
+        }
+    }
+
+    @Test
+    void failedSendRemovesSubscriberTest() throws Exception {
+        BookingEventRegistry failing = new BookingEventRegistry(List.of(), 10, 2, 10, 60_000, 1) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        throw new IllegalArgumentException("broken");
+                    }
+                };
+            }
+        };
+        try {
+            failing.subscribe(1L);
+
+            failing.publish(event(5L));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (failing.size() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, failing.size());
+        } finally {
+            failing.shutdown();
+        }
+    }
+
+    private static BookingEventDto event(Long bookingId) {
+        return BookingEventDto.builder()
+                .type(BookingEventType.APPROVED)
+                .bookingId(bookingId)
+                .itemId(10L)
+                .ownerId(1L)
+                .bookerId(2L)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    /**
+     * Записывает части, которые SseEmitter отдал бы в ответ: рамку события и данные.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> parts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> parts.add(part.getData()));
+        }
+
+        List<Object> awaitParts(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (parts.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            return List.copyOf(parts);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.detail.BookingDetailCache;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventRegistry;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {"shareit.booking.expiry.batch-size=2", "shareit.booking.expiry.pause-ms=0"})
+@Import({BookingExpirySweeper.class, ItemLockManager.class})
+class BookingExpirySweeperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingExpirySweeper sweeper;
+    @MockBean
+    private BookingIntervalIndex bookingIntervalIndex;
+    @MockBean
+    private BookingEventRegistry bookingEventRegistry;
+    @MockBean
+    private BookingDetailCache bookingDetailCache;
+    @SpyBean
+    private ItemLockManager itemLockManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = testEntityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        item = testEntityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void sweepExpiresStartedWaitingBookingsInBatchesTest() {
+        Booking stale1 = persistBooking(NOW.minusDays(3), BookingStatus.WAITING);
+        Booking stale2 = persistBooking(NOW.minusDays(2), BookingStatus.WAITING);
+        Booking stale3 = persistBooking(NOW.minusHours(1), BookingStatus.WAITING);
+        Booking future = persistBooking(NOW.plusDays(1), BookingStatus.WAITING);
+        Booking approved = persistBooking(NOW.minusDays(1), BookingStatus.APPROVED);
+        testEntityManager.flush();
+        long expiredBefore = sweeper.getExpiredTotal();
+
+        assertEquals(3, sweeper.sweep(NOW));
+        testEntityManager.clear();
+
+        assertEquals(BookingStatus.EXPIRED, status(stale1));
+        assertEquals(BookingStatus.EXPIRED, status(stale2));
+        assertEquals(BookingStatus.EXPIRED, status(stale3));
+        assertEquals(BookingStatus.WAITING, status(future));
+        assertEquals(BookingStatus.APPROVED, status(approved));
+        assertEquals(expiredBefore + 3, sweeper.getExpiredTotal());
+        assertEquals(0, sweeper.getLagSeconds());
+        verify(bookingIntervalIndex, times(3)).update(any());
+        verify(bookingEventRegistry, times(3)).publishAfterCommit(any());
+        verify(bookingDetailCache, times(2)).evict(anyList());
+
+        assertEquals(0, sweeper.sweep(NOW));
+        assertEquals(expiredBefore + 3, sweeper.getExpiredTotal());
+        assertEquals(0, sweeper.getLastRunExpired());
+    }
+
+    @Test
+    void sweepLocksOneStripeAtATimeTest() {
+        Item other = testEntityManager.persist(Item.builder()
+                .name("other")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking first = persistBooking(NOW.minusDays(3), BookingStatus.WAITING);
+        Booking second = testEntityManager.persist(Booking.builder()
+                .item(other)
+                .booker(booker)
+                .start(NOW.minusDays(2))
+                .end(NOW.plusDays(2))
+                .status(BookingStatus.WAITING)
+                .build());
+        testEntityManager.flush();
+
+        assertEquals(2, sweeper.sweep(NOW));
+
+        ArgumentCaptor<Collection<Long>> itemIds = ArgumentCaptor.forClass(Collection.class);
+        verify(itemLockManager, times(2)).lockForTransaction(itemIds.capture());
+        for (Collection<Long> locked : itemIds.getAllValues()) {
+            assertEquals(1, locked.stream().map(itemLockManager::stripeIndex).distinct().count());
+        }
+        testEntityManager.clear();
+        assertEquals(BookingStatus.EXPIRED, status(first));
+        assertEquals(BookingStatus.EXPIRED, status(second));
+    }
+
+    private BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+
+    private Booking persistBooking(LocalDateTime start, BookingStatus status) {
+        return testEntityManager.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(5))
+                .status(status)
+                .build());
+    }
+}
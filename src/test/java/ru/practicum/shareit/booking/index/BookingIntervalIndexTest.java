@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, 100);
+        item = Item.builder()
+                .id(1L)
+                .name("nameItem")
+                .description("description")
+                .available(true)
+                .build();
+    }
+
+    @Test
+    void hasOverlapLoadsItemOnceTest() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(
+                new BookingInterval(1L, NOW.plusDays(1), NOW.plusDays(2), BookingStatus.APPROVED)));
+
+        assertTrue(index.hasOverlap(1L, NOW.plusHours(36), NOW.plusDays(3)));
+        assertTrue(index.hasOverlap(1L, NOW.plusHours(12), NOW.plusDays(3)));
+        assertFalse(index.hasOverlap(1L, NOW.plusDays(2), NOW.plusDays(3)));
+        assertFalse(index.hasOverlap(1L, NOW.plusHours(1), NOW.plusDays(1)));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+    }
+
+    @Test
+    void preloadLoadsMissingItemsInOneQueryTest() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        index.hasOverlap(1L, NOW, NOW.plusDays(1));
+        when(bookingRepository.findIntervalsByItemIdIn(eq(List.of(2L, 3L)), any(), any())).thenReturn(List.of(
+                new ItemBookingInterval(2L, 5L, NOW.plusDays(1), NOW.plusDays(2), BookingStatus.APPROVED)));
+
+        index.preload(List.of(1L, 2L, 3L));
+
+        assertTrue(index.hasOverlap(2L, NOW.plusHours(36), NOW.plusDays(3)));
+        assertFalse(index.hasOverlap(3L, NOW.plusHours(36), NOW.plusDays(3)));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).findIntervalsByItemIdIn(any(), any(), any());
+    }
+
+    @Test
+    void hasOverlapWithLongIntervalStartedEarlierTest() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of(
+                new BookingInterval(1L, NOW.plusDays(1), NOW.plusDays(30), BookingStatus.WAITING),
+                new BookingInterval(2L, NOW.plusDays(2), NOW.plusDays(3), BookingStatus.APPROVED)));
+
+        assertTrue(index.hasOverlap(1L, NOW.plusDays(20), NOW.plusDays(21)));
+        assertFalse(index.hasOverlap(1L, NOW.plusDays(30), NOW.plusDays(31)));
+    }
+
+    @Test
+    void updateAddsAndRemovesIntervalsTest() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(NOW.plusDays(1))
+                .end(NOW.plusDays(2))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        index.update(booking);
+        assertTrue(index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2)));
+
+        booking.setStatus(BookingStatus.APPROVED);
+        index.update(booking);
+        assertTrue(index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2)));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        index.update(booking);
+        assertFalse(index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2)));
+    }
+
+    @Test
+    void leastRecentlyUsedItemIsEvictedTest() {
+        index = new BookingIntervalIndex(bookingRepository, 2);
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+
+        index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2));
+        index.hasOverlap(2L, NOW.plusDays(1), NOW.plusDays(2));
+        index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2));
+        index.hasOverlap(3L, NOW.plusDays(1), NOW.plusDays(2));
+        index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2));
+        index.hasOverlap(2L, NOW.plusDays(1), NOW.plusDays(2));
+
+        assertEquals(2, index.size());
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), any(), any());
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(2L), any(), any());
+    }
+
+    @Test
+    void committedUpdateIsReappliedAfterItemWasReloadedTest() {
+        index = new BookingIntervalIndex(bookingRepository, 1);
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(NOW.plusDays(1))
+                .end(NOW.plusDays(2))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.update(booking);
+            index.hasOverlap(2L, NOW.plusDays(1), NOW.plusDays(2));
+            index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.hasOverlap(1L, NOW.plusDays(1), NOW.plusDays(2)));
+    }
+
+    @Test
+    void hasOverlapIgnoresFinishedIntervalsTest() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), any(), any())).thenReturn(List.of());
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(NOW.minusDays(2))
+                .end(NOW.minusDays(1))
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        index.update(booking);
+
+        assertFalse(index.hasOverlap(1L, NOW.minusDays(2), NOW.plusDays(1)));
+    }
+}
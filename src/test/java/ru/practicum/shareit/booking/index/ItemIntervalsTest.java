@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemIntervalsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void findOverlapsMatchesFullScanTest() {
+        Random random = new Random(42);
+        ItemIntervals intervals = new ItemIntervals(List.of());
+        Map<Long, BookingInterval> reference = new HashMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            long bookingId = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                intervals.remove(bookingId);
+                reference.remove(bookingId);
+            } else {
+                LocalDateTime start = BASE.plusHours(random.nextInt(2_000));
+                int hours = random.nextInt(10) == 0 ? 1 + random.nextInt(1_000) : 1 + random.nextInt(48);
+                BookingInterval interval = new BookingInterval(bookingId, start, start.plusHours(hours),
+                        BookingStatus.APPROVED);
+                intervals.put(interval);
+                reference.put(bookingId, interval);
+            }
+            if (step % 500 == 499) {
+                LocalDateTime time = BASE.plusHours(step / 5);
+                intervals.prune(time);
+                reference.values().removeIf(interval -> !interval.getEnd().isAfter(time));
+            }
+            LocalDateTime start = BASE.plusHours(random.nextInt(2_000));
+            LocalDateTime end = start.plusHours(random.nextInt(72));
+
+            assertEquals(expected(reference, start, end), ids(intervals.findOverlaps(start, end)));
+            assertEquals(reference.size(), intervals.size());
+        }
+    }
+
+    @Test
+    void findOverlapsAfterLongIntervalRemovedTest() {
+        ItemIntervals intervals = new ItemIntervals(List.of(
+                new BookingInterval(1L, BASE, BASE.plusDays(365), BookingStatus.APPROVED),
+                new BookingInterval(2L, BASE.plusDays(10), BASE.plusDays(11), BookingStatus.WAITING),
+                new BookingInterval(3L, BASE.plusDays(20), BASE.plusDays(21), BookingStatus.APPROVED)));
+
+        assertEquals(List.of(1L, 3L), ids(intervals.findOverlaps(BASE.plusDays(20), BASE.plusDays(22))));
+        intervals.remove(1L);
+
+        assertEquals(List.of(3L), ids(intervals.findOverlaps(BASE.plusDays(20), BASE.plusDays(22))));
+        assertEquals(List.of(), ids(intervals.findOverlaps(BASE.plusDays(12), BASE.plusDays(20))));
+    }
+
+    private static List<Long> expected(Map<Long, BookingInterval> reference, LocalDateTime start,
+                                       LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            return new ArrayList<>();
+        }
+        return reference.values().stream()
+                .filter(interval -> interval.overlaps(start, end))
+                .sorted(Comparator.comparing(BookingInterval::getStart).thenComparing(BookingInterval::getBookingId))
+                .map(BookingInterval::getBookingId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<BookingInterval> intervals) {
+        return intervals.stream()
+                .map(BookingInterval::getBookingId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка блокировок на настоящих транзакциях: поток проверяет в базе, свободна ли вещь,
+ * и записывает подтверждённое бронирование. Без блокировки до фиксации два потока
+ * видели бы вещь свободной и записывали пересекающиеся бронирования.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemLockManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int ITEMS = 3;
+    private static final int ATTEMPTS = 25;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1);
+
+    private final ItemLockManager itemLockManager;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private User booker;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void lockForTransactionPreventsOverlappingApprovedBookingsTest() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                Item item = items.get(random.nextInt(ITEMS));
+                LocalDateTime start = BASE.plusHours(random.nextInt(48));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(6));
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemLockManager.lockForTransaction(item.getId());
+                    bookIfFree(item, start, end);
+                });
+            }
+        });
+
+        assertNoOverlaps();
+    }
+
+    @Test
+    void lockForTransactionBatchesInAnyOrderDoNotDeadlockTest() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                List<Item> batch = new ArrayList<>(items);
+                Collections.shuffle(batch, random);
+                List<Long> itemIds = new ArrayList<>();
+                batch.forEach(item -> itemIds.add(item.getId()));
+                LocalDateTime start = BASE.plusHours(random.nextInt(48));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(6));
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemLockManager.lockForTransaction(itemIds);
+                    for (Item item : batch) {
+                        bookIfFree(item, start, end);
+                    }
+                });
+            }
+        });
+
+        assertNoOverlaps();
+    }
+
+    @Test
+    void lockIsHeldUntilTransactionCompletesTest() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long itemId = items.get(0).getId();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                itemLockManager.lockForTransaction(itemId);
+                locked.countDown();
+                await(release);
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    itemLockManager.lockForTransaction(itemId)));
+
+            assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void lockForTransactionWithoutTransactionTest() {
+        assertThrows(IllegalStateException.class, () -> itemLockManager.lockForTransaction(1L));
+    }
+
+    /**
+     * Проверка и запись разнесены паузой, чтобы без блокировки гонка проявлялась наверняка.
+     */
+    private void bookIfFree(Item item, LocalDateTime start, LocalDateTime end) {
+        boolean free = bookingRepository.findIntervalsByItemId(item.getId(), List.of(BookingStatus.APPROVED),
+                        BASE.minusDays(1)).stream()
+                .noneMatch(interval -> interval.overlaps(start, end));
+        pause();
+        if (free) {
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start)
+                    .end(end)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+    }
+
+    private void assertNoOverlaps() {
+        for (Item item : items) {
+            List<BookingInterval> intervals = bookingRepository.findIntervalsByItemId(item.getId(),
+                    List.of(BookingStatus.APPROVED), BASE.minusDays(1));
+            assertFalse(intervals.isEmpty());
+            for (int i = 0; i < intervals.size(); i++) {
+                for (int j = i + 1; j < intervals.size(); j++) {
+                    BookingInterval first = intervals.get(i);
+                    BookingInterval second = intervals.get(j);
+                    assertFalse(first.overlaps(second.getStart(), second.getEnd()),
+                            String.format("Бронирования %d и %d вещи %d пересекаются", first.getBookingId(),
+                                    second.getBookingId(), item.getId()));
+                }
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                Callable<Void> task = () -> {
+                    startSignal.await();
+                    body.run(thread);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            startSignal.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.occupancy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.ItemOccupancyDto;
+import ru.practicum.shareit.booking.dto.OccupancyDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({OccupancyCalculator.class, BookingArchiver.class})
+class OccupancyCalculatorTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 9, 1, 0, 0);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private OccupancyCalculator occupancyCalculator;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item idle;
+
+    @BeforeEach
+    void setUp() {
+        owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = testEntityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        item = persistItem(owner);
+        idle = persistItem(owner);
+        Item foreign = persistItem(booker);
+        persistBooking(item, FROM.plusHours(6), FROM.plusHours(30), BookingStatus.APPROVED);
+        persistBooking(item, FROM.plusHours(36), FROM.plusHours(40), BookingStatus.WAITING);
+        persistBooking(foreign, FROM, FROM.plusDays(2), BookingStatus.APPROVED);
+        testEntityManager.persist(ArchivedBooking.builder()
+                .id(1_000L)
+                .item(idle)
+                .booker(booker)
+                .start(FROM.minusHours(12))
+                .end(FROM.plusHours(12))
+                .status(BookingStatus.APPROVED)
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void calculateByDayTest() {
+        OccupancyDto occupancy = occupancyCalculator.calculate(owner.getId(), FROM, FROM.plusDays(2),
+                OccupancyBucket.DAY);
+
+        assertEquals(List.of(FROM, FROM.plusDays(1)), occupancy.getBuckets());
+        assertEquals(List.of(item.getId(), idle.getId()), occupancy.getItems().stream()
+                .map(ItemOccupancyDto::getItemId)
+                .collect(Collectors.toList()));
+        ItemOccupancyDto booked = occupancy.getItems().get(0);
+        assertArrayEquals(new double[]{18, 6}, booked.getBookedHours());
+        assertArrayEquals(new double[]{75, 25}, booked.getUtilization());
+        ItemOccupancyDto archived = occupancy.getItems().get(1);
+        assertArrayEquals(new double[]{12, 0}, archived.getBookedHours());
+        assertArrayEquals(new double[]{50, 0}, archived.getUtilization());
+    }
+
+    @Test
+    void calculateByWeekAlignsBucketsToMondayTest() {
+        LocalDateTime from = FROM.plusHours(12);
+        OccupancyDto occupancy = occupancyCalculator.calculate(owner.getId(), from, LocalDateTime.of(2022, 9, 12, 0, 0),
+                OccupancyBucket.WEEK);
+
+        assertEquals(List.of(from, LocalDateTime.of(2022, 9, 5, 0, 0)), occupancy.getBuckets());
+        assertArrayEquals(new double[]{18, 0}, occupancy.getItems().get(0).getBookedHours());
+        assertArrayEquals(new double[]{21.43, 0}, occupancy.getItems().get(0).getUtilization());
+    }
+
+    @Test
+    void calculateWithWrongPeriodTest() {
+        assertThrows(ValidationException.class, () -> occupancyCalculator.calculate(owner.getId(), FROM, FROM,
+                OccupancyBucket.DAY));
+        assertThrows(ValidationException.class, () -> occupancyCalculator.calculate(owner.getId(), FROM,
+                FROM.plusYears(2), OccupancyBucket.DAY));
+        assertThrows(ValidationException.class, () -> OccupancyBucket.from("month"));
+    }
+
+    private Item persistItem(User itemOwner) {
+        return testEntityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(itemOwner)
+                .build());
+    }
+
+    private void persistBooking(Item bookedItem, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        testEntityManager.persist(Booking.builder()
+                .item(bookedItem)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
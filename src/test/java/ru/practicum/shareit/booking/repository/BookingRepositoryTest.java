@@ -0,0 +1,213 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.pagination.BookingCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    /**
+     * База хранит время с точностью до микросекунд, поэтому и в тесте время без наносекунд.
+     */
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+    private Booking rejected;
+
+    @BeforeEach
+    void setUp() {
+        owner = testEntityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = testEntityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = testEntityManager.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        past = persistBooking(item, NOW.minusDays(3), NOW.minusDays(2), BookingStatus.APPROVED);
+        current = persistBooking(item, NOW.minusDays(1), NOW.plusDays(1), BookingStatus.APPROVED);
+        future = persistBooking(item, NOW.plusDays(2), NOW.plusDays(3), BookingStatus.WAITING);
+        rejected = persistBooking(item, NOW.plusDays(4), NOW.plusDays(5), BookingStatus.REJECTED);
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void findByStateForBookerAndOwnerTest() {
+        for (BookingRole role : BookingRole.values()) {
+            Long userId = role == BookingRole.OWNER ? owner.getId() : booker.getId();
+            assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), past.getId()),
+                    ids(role, userId, BookingState.ALL));
+            assertEquals(List.of(past.getId()), ids(role, userId, BookingState.PAST));
+            assertEquals(List.of(current.getId()), ids(role, userId, BookingState.CURRENT));
+            assertEquals(List.of(rejected.getId(), future.getId()), ids(role, userId, BookingState.FUTURE));
+            assertEquals(List.of(future.getId()), ids(role, userId, BookingState.WAITING));
+            assertEquals(List.of(rejected.getId()), ids(role, userId, BookingState.REJECTED));
+        }
+    }
+
+    @Test
+    void findByStateForOtherUser_ReturnEmptyListTest() {
+        assertEquals(List.of(), ids(BookingRole.OWNER, booker.getId(), BookingState.ALL));
+        assertEquals(List.of(), ids(BookingRole.BOOKER, owner.getId(), BookingState.ALL));
+    }
+
+    @Test
+    void findByStateUsesSingleStatementTest() {
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingRepository.findByState(query(BookingRole.OWNER, owner.getId(),
+                        BookingState.ALL).build()).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+
+        assertEquals(4, bookings.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void findDtoByStateMatchesEntityQueryTest() {
+        for (BookingRole role : BookingRole.values()) {
+            Long userId = role == BookingRole.OWNER ? owner.getId() : booker.getId();
+            for (BookingState state : BookingState.values()) {
+                BookingQuery query = query(role, userId, state).build();
+                List<BookingDto> expected = bookingRepository.findByState(query).stream()
+                        .map(BookingMapper::toBookingDto)
+                        .collect(Collectors.toList());
+                testEntityManager.clear();
+
+                List<BookingDto> bookings = bookingRepository.findDtoByState(query);
+
+                assertEquals(ids(expected), ids(bookings));
+                for (int i = 0; i < bookings.size(); i++) {
+                    assertEquals(expected.get(i).getItem(), bookings.get(i).getItem());
+                    assertEquals(expected.get(i).getBooker(), bookings.get(i).getBooker());
+                    assertEquals(expected.get(i).getStatus(), bookings.get(i).getStatus());
+                }
+            }
+        }
+        assertEquals(0, testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findByStateWithOffsetAndCursorTest() {
+        assertEquals(List.of(future.getId(), current.getId()),
+                ids(query(BookingRole.BOOKER, booker.getId(), BookingState.ALL).offset(1).limit(2).build()));
+
+        BookingCursor cursor = new BookingCursor(future.getStart(), future.getId());
+        assertEquals(List.of(current.getId(), past.getId()),
+                ids(query(BookingRole.BOOKER, booker.getId(), BookingState.ALL).after(cursor).offset(3).build()));
+    }
+
+    @Test
+    void findByStateWithCursorOnEqualStartTest() {
+        Booking twin = persistBooking(current.getItem(), current.getStart(), current.getEnd(), BookingStatus.APPROVED);
+        testEntityManager.flush();
+
+        BookingCursor cursor = new BookingCursor(twin.getStart(), twin.getId());
+        assertEquals(List.of(current.getId(), past.getId()),
+                ids(query(BookingRole.OWNER, owner.getId(), BookingState.ALL).after(cursor).build()));
+    }
+
+    @Test
+    void updateStatusChangesOnlyWaitingBookingsTest() {
+        int updated = bookingRepository.updateStatus(List.of(future.getId(), current.getId()),
+                BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(future.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(current.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findAllWithItemByIdInTest() {
+        List<Booking> bookings = bookingRepository.findAllWithItemByIdIn(List.of(past.getId(), future.getId()));
+
+        assertEquals(2, bookings.size());
+        bookings.forEach(booking -> assertEquals(owner.getId(), booking.getItem().getOwner().getId()));
+        assertEquals(List.of(current.getItem().getId()),
+                bookingRepository.findItemIdsByIdIn(List.of(past.getId(), future.getId())));
+    }
+
+    @Test
+    void findLastAndNextBookingsTest() {
+        List<Long> itemIds = List.of(current.getItem().getId());
+
+        assertEquals(List.of(current.getId()), bookingRepository.findLastBookings(itemIds, BookingStatus.APPROVED, NOW)
+                .stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(List.of(), bookingRepository.findNextBookings(itemIds, BookingStatus.APPROVED, NOW));
+        assertEquals(List.of(future.getId()), bookingRepository.findNextBookings(itemIds, BookingStatus.WAITING, NOW)
+                .stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    private List<Long> ids(BookingRole role, Long userId, BookingState state) {
+        return ids(query(role, userId, state).build());
+    }
+
+    private List<Long> ids(BookingQuery query) {
+        return bookingRepository.findByState(query).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private BookingQuery.BookingQueryBuilder query(BookingRole role, Long userId, BookingState state) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .time(NOW)
+                .offset(0)
+                .limit(500);
+    }
+
+    private Booking persistBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return testEntityManager.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
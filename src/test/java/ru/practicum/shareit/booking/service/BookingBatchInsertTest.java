@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что пакет бронирований на разные вещи уходит в базу одним сбросом при фиксации,
+ * то есть JDBC-пачками, а не по сбросу перед каждым запросом интервалов новой вещи.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking.expiry.interval-ms=3600000"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingBatchInsertTest {
+
+    private static final int ITEMS = 10;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User booker;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBookingsFlushesOnceForManyItemsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateDto> bookings = new ArrayList<>();
+        for (Item item : items) {
+            for (int day = 0; day < 2; day++) {
+                bookings.add(BookingCreateDto.builder()
+                        .itemId(item.getId())
+                        .start(start.plusDays(day))
+                        .end(start.plusDays(day).plusHours(12))
+                        .build());
+            }
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), bookings);
+
+        assertTrue(results.stream().allMatch(result -> result.getBooking() != null));
+        assertEquals(2 * ITEMS, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getFlushCount());
+        assertEquals(2 * ITEMS, bookingRepository.count());
+    }
+}
@@ -3,16 +3,39 @@ package ru.practicum.shareit.booking.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.async.BookingWriteQueue;
+import ru.practicum.shareit.booking.counter.BookingCounters;
+import ru.practicum.shareit.booking.detail.BookingDetailCache;
+import ru.practicum.shareit.booking.detail.LocalBookingCacheInvalidationBus;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.enums.BookingRequestStatus;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventDto;
+import ru.practicum.shareit.booking.event.BookingEventRegistry;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.occupancy.OccupancyCalculator;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryCache;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStateException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -22,19 +45,23 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.validation.DateValidator;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
 
-    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start");
     private static final LocalDateTime NOW = LocalDateTime.now();
 
     @Mock
@@ -45,6 +72,27 @@ class BookingServiceImplTest {
     private ItemService itemService;
     @Mock
     private DateValidator dateValidator;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemLockManager itemLockManager;
+    @Mock
+    private BookingEventRegistry bookingEventRegistry;
+    @Mock
+    private ItemBookingSummaryCache itemBookingSummaryCache;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingArchiver bookingArchiver;
+    @Mock
+    private BookingCounters bookingCounters;
+    @Mock
+    private OccupancyCalculator occupancyCalculator;
+    @Mock
+    private BookingWriteQueue bookingWriteQueue;
+    @Spy
+    private BookingDetailCache bookingDetailCache = new BookingDetailCache(new LocalBookingCacheInvalidationBus(),
+            100, Duration.ofMinutes(1), Clock.systemDefaultZone());
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -107,63 +155,31 @@ class BookingServiceImplTest {
         int from = 0;
         int size = 1;
         long userId = booker.getId();
-        PageRequest page = PageRequest.of(0, size, SORT);
-
-        when(bookingRepository.findByBookerId(userId, page)).thenReturn(List.of(booking));
-        List<BookingDto> bookingDtos = bookingService.getBookingsCurrentUser(userId, "ALL", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
-        assertEquals(booking.getId(), bookingDtos.get(0).getId());
-
-        when(bookingRepository.findByBookerIdAndStartBeforeAndEndBefore(anyLong(),
-                any(), any(), any())).thenReturn(List.of(booking));
-
-        bookingDtos = bookingService.getBookingsCurrentUser(userId, "PAST", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
-
-        booking.setStart(NOW.plusSeconds(60));
 
-        when(bookingRepository.findByBookerIdAndStartAfter(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
-
-        bookingDtos = bookingService.getBookingsCurrentUser(userId, "FUTURE", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
-
-        booking.setEnd(NOW.plusSeconds(120));
-
-        when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(), any(), any())).thenReturn(List.of(booking));
-
-        bookingDtos = bookingService.getBookingsCurrentUser(userId, "CURRENT", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
-
-        booking.setStatus(BookingStatus.WAITING);
-
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
-
-        bookingDtos = bookingService.getBookingsCurrentUser(userId, "WAITING", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
-
-        booking.setStatus(BookingStatus.REJECTED);
-
-        bookingDtos = bookingService.getBookingsCurrentUser(userId, "REJECTED", from, size);
-
-        assertNotNull(bookingDtos);
-        assertEquals(1, bookingDtos.size());
+        when(bookingRepository.findDtoByState(any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+        when(bookingArchiver.threshold(any())).thenReturn(NOW.minusMonths(6));
+        for (BookingState state : BookingState.values()) {
+            BookingPageDto bookingDtos = bookingService.getBookingsCurrentUser(userId,
+                    state.name().toLowerCase(), from, size, null);
+
+            assertNotNull(bookingDtos);
+            assertEquals(1, bookingDtos.getBookings().size());
+            assertEquals(booking.getId(), bookingDtos.getBookings().get(0).getId());
+        }
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        verify(bookingRepository, times(BookingState.values().length)).findDtoByState(captor.capture());
+        for (int i = 0; i < BookingState.values().length; i++) {
+            BookingQuery query = captor.getAllValues().get(i);
+            assertEquals(BookingState.values()[i], query.getState());
+            assertEquals(BookingRole.BOOKER, query.getRole());
+            assertEquals(userId, query.getUserId());
+            assertEquals(from, query.getOffset());
+            assertEquals(size, query.getLimit());
+        }
 
         String error = "Unknown state: ERROR";
         UnsupportedStateException exception = assertThrows(UnsupportedStateException.class,
-                () -> bookingService.getBookingsCurrentUser(userId, "ERROR", from, size));
+                () -> bookingService.getBookingsCurrentUser(userId, "ERROR", from, size, null));
         assertEquals(error, exception.getMessage());
     }
 
@@ -172,64 +188,117 @@ class BookingServiceImplTest {
         int from = 0;
         int size = 1;
         long userId = owner.getId();
-        PageRequest page = PageRequest.of(0, size, SORT);
-
-        when(bookingRepository.findAllByItem_Owner_Id(userId, page)).thenReturn(List.of(booking));
 
-        List<BookingDto> bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "ALL", from, size);
+        when(bookingRepository.findDtoByState(any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+        when(bookingArchiver.threshold(any())).thenReturn(NOW.minusMonths(6));
+        for (BookingState state : BookingState.values()) {
+            BookingPageDto bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, state.name(),
+                    from, size, null);
+
+            assertNotNull(bookingOutDtos);
+            assertEquals(1, bookingOutDtos.getBookings().size());
+            assertEquals(booking.getId(), bookingOutDtos.getBookings().get(0).getId());
+        }
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        verify(bookingRepository, times(BookingState.values().length)).findDtoByState(captor.capture());
+        for (int i = 0; i < BookingState.values().length; i++) {
+            BookingQuery query = captor.getAllValues().get(i);
+            assertEquals(BookingState.values()[i], query.getState());
+            assertEquals(BookingRole.OWNER, query.getRole());
+            assertEquals(userId, query.getUserId());
+        }
 
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
-        assertEquals(booking.getId(), bookingOutDtos.get(0).getId());
-
-        when(bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
-
-        bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "PAST", from, size);
-
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
-
-        booking.setStart(NOW.plusSeconds(60));
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
+        String error = "Unknown state: ERROR";
+        UnsupportedStateException exception = assertThrows(UnsupportedStateException.class,
+                () -> bookingService.getBookingsAllItemCurrentUser(userId, "ERROR", from, size, null));
+        assertEquals(error, exception.getMessage());
+    }
 
-        bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "FUTURE", from, size);
+    @Test
+    void getBookingsCurrentUserWithCursor_ReturnNextCursorTest() {
+        long userId = booker.getId();
+        when(bookingRepository.findDtoByState(any())).thenReturn(List.of(BookingMapper.toBookingDto(booking)));
+        when(bookingArchiver.threshold(any())).thenReturn(NOW.minusMonths(6));
 
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
+        BookingPageDto first = bookingService.getBookingsCurrentUser(userId, "ALL", 3, 1, null);
+        assertNotNull(first.getNext());
 
-        booking.setEnd(NOW.plusSeconds(120));
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(), any(), any())).thenReturn(List.of(booking));
+        bookingService.getBookingsCurrentUser(userId, "ALL", 0, 1, first.getNext());
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        verify(bookingRepository, times(2)).findDtoByState(captor.capture());
+        assertEquals(3, captor.getAllValues().get(0).getOffset());
+        assertNull(captor.getAllValues().get(0).getAfter());
+        assertEquals(booking.getId(), captor.getAllValues().get(1).getAfter().getId());
+        assertEquals(booking.getStart(), captor.getAllValues().get(1).getAfter().getStart());
 
-        bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "CURRENT", from, size);
+        BookingPageDto last = bookingService.getBookingsCurrentUser(userId, "ALL", 0, 2, null);
+        assertNull(last.getNext());
 
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsCurrentUser(userId, "ALL", 0, 1, "not a cursor"));
+    }
 
-        booking.setStatus(BookingStatus.WAITING);
-        when(bookingRepository.findAllByItem_Owner_IdAndStatus(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
+    @Test
+    void getBookingsCurrentUserWhenPageReachesArchive_ReturnMergedPageTest() {
+        long userId = booker.getId();
+        Booking older = Booking.builder()
+                .id(5L)
+                .start(NOW.minusMonths(8))
+                .end(NOW.minusMonths(7))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        ArchivedBooking archived = ArchivedBooking.builder()
+                .id(7L)
+                .start(NOW.minusMonths(10))
+                .end(NOW.minusMonths(9))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(bookingArchiver.threshold(any())).thenReturn(NOW.minusMonths(6));
+        when(bookingRepository.findDtoByState(any())).thenReturn(List.of(BookingMapper.toBookingDto(booking),
+                BookingMapper.toBookingDto(older)));
+        when(archivedBookingRepository.findDtoByState(any())).thenReturn(List.of(
+                BookingMapper.toBookingDto(BookingMapper.toBooking(archived))));
+
+        BookingPageDto page = bookingService.getBookingsCurrentUser(userId, "ALL", 1, 2, null);
+
+        assertEquals(2, page.getBookings().size());
+        assertEquals(older.getId(), page.getBookings().get(0).getId());
+        assertEquals(archived.getId(), page.getBookings().get(1).getId());
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        verify(archivedBookingRepository).findDtoByState(captor.capture());
+        assertEquals(0, captor.getValue().getOffset());
+        assertEquals(3, captor.getValue().getLimit());
+    }
 
-        bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "WAITING", from, size);
+    @Test
+    void getBookingsCurrentUserWhenStateNotArchived_SkipArchiveTest() {
+        when(bookingRepository.findDtoByState(any())).thenReturn(List.of());
 
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
+        bookingService.getBookingsCurrentUser(booker.getId(), "FUTURE", 0, 10, null);
 
-        booking.setStatus(BookingStatus.REJECTED);
-        when(bookingRepository.findAllByItem_Owner_IdAndStatus(anyLong(),
-                any(), any())).thenReturn(List.of(booking));
+        verify(archivedBookingRepository, never()).findDtoByState(any());
+    }
 
-        bookingOutDtos = bookingService.getBookingsAllItemCurrentUser(userId, "REJECTED", from, size);
+    @Test
+    void getBookingByIdWhenArchived_ReturnBookingDtoTest() {
+        ArchivedBooking archived = ArchivedBooking.builder()
+                .id(7L)
+                .start(NOW.minusMonths(10))
+                .end(NOW.minusMonths(9))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(bookingRepository.findById(archived.getId())).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(archived.getId())).thenReturn(Optional.of(archived));
 
-        assertNotNull(bookingOutDtos);
-        assertEquals(1, bookingOutDtos.size());
+        BookingDto bookingDto = bookingService.getBookingById(booker.getId(), archived.getId());
 
-        String error = "Unknown state: ERROR";
-        UnsupportedStateException exception = assertThrows(UnsupportedStateException.class,
-                () -> bookingService.getBookingsCurrentUser(userId, "ERROR", from, size));
-        assertEquals(error, exception.getMessage());
+        assertEquals(archived.getId(), bookingDto.getId());
     }
 
     @Test
@@ -242,6 +311,18 @@ class BookingServiceImplTest {
         assertEquals(booking.getId(), bookingDto.getId());
     }
 
+    @Test
+    void getBookingByIdTwice_ReadRepositoryOnceTest() {
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        bookingService.getBookingById(booker.getId(), booking.getId());
+        BookingDto bookingDto = bookingService.getBookingById(owner.getId(), booking.getId());
+
+        assertEquals(booking.getId(), bookingDto.getId());
+        verify(bookingRepository, times(1)).findById(booking.getId());
+        assertEquals(1, bookingDetailCache.getHits());
+    }
+
     @Test
     void getBookingByIdWhenWrongUser_ReturnObjectNotFoundExceptionTest() {
         long userId = user.getId();
@@ -267,6 +348,11 @@ class BookingServiceImplTest {
 
         assertNotNull(bookingOutDto);
         assertEquals(booking.getId(), bookingOutDto.getId());
+        ArgumentCaptor<BookingEventDto> captor = ArgumentCaptor.forClass(BookingEventDto.class);
+        verify(bookingEventRegistry).publishAfterCommit(captor.capture());
+        assertEquals(BookingEventType.CREATED, captor.getValue().getType());
+        assertEquals(owner.getId(), captor.getValue().getOwnerId());
+        assertEquals(bookerId, captor.getValue().getBookerId());
     }
 
     @Test
@@ -301,6 +387,60 @@ class BookingServiceImplTest {
         assertEquals(error, ex.getMessage());
     }
 
+    @Test
+    void createBookingWhenOverlap_ReturnValidationExceptionTest() {
+        long bookerId = booker.getId();
+        long itemId = item.getId();
+        when(userService.getById(bookerId)).thenReturn(booker);
+        when(itemService.getById(itemId)).thenReturn(item);
+        when(dateValidator.isCorrectDate(any(), any())).thenReturn(true);
+        when(bookingIntervalIndex.hasOverlap(itemId, bookingCreateDto.getStart(), bookingCreateDto.getEnd()))
+                .thenReturn(true);
+        String error = String.format("Вещь с id = %d уже забронирована на эти даты", itemId);
+
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(bookerId, bookingCreateDto));
+        assertEquals(error, ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBookings_ReturnResultForEachEntryTest() {
+        long bookerId = booker.getId();
+        long unknownItemId = 99L;
+        BookingCreateDto unknownItem = BookingCreateDto.builder()
+                .itemId(unknownItemId)
+                .start(bookingCreateDto.getStart())
+                .end(bookingCreateDto.getEnd())
+                .build();
+        BookingCreateDto overlapping = BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(bookingCreateDto.getStart())
+                .end(bookingCreateDto.getEnd())
+                .build();
+        when(userService.getById(bookerId)).thenReturn(booker);
+        when(itemService.getByIds(any())).thenReturn(List.of(item));
+        when(dateValidator.isCorrectDate(any(), any())).thenReturn(true);
+        when(bookingIntervalIndex.hasOverlap(any(), any(), any())).thenReturn(false, true);
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookerId,
+                List.of(bookingCreateDto, unknownItem, overlapping));
+
+        assertEquals(3, results.size());
+        assertEquals(booking.getId(), results.get(0).getBooking().getId());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getBooking());
+        assertEquals(String.format("Вещь с id = %d не найдена", unknownItemId), results.get(1).getError());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(String.format("Вещь с id = %d уже забронирована на эти даты", item.getId()),
+                results.get(2).getError());
+        verify(itemLockManager).lockForTransaction(Set.of(item.getId(), unknownItemId));
+        verify(itemService, times(1)).getByIds(Set.of(item.getId(), unknownItemId));
+        verify(bookingRepository, times(1)).save(any());
+        verify(bookingIntervalIndex, times(1)).update(booking);
+    }
+
     @Test
     void createBookingWhenFailOwnerItem_ReturnObjectNotFoundExceptionTest() {
         long ownerId = owner.getId();
@@ -320,6 +460,7 @@ class BookingServiceImplTest {
         long userId = owner.getId();
         long bookingId = booking.getId();
         booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(userService.getById(userId)).thenReturn(owner);
         when(bookingRepository.save(any())).thenReturn(booking);
@@ -328,6 +469,10 @@ class BookingServiceImplTest {
 
         assertNotNull(bookingDto);
         assertEquals(booking.getId(), bookingDto.getId());
+        verify(bookingDetailCache).evict(bookingId);
+        ArgumentCaptor<BookingEventDto> captor = ArgumentCaptor.forClass(BookingEventDto.class);
+        verify(bookingEventRegistry).publishAfterCommit(captor.capture());
+        assertEquals(BookingEventType.REJECTED, captor.getValue().getType());
     }
 
     @Test
@@ -346,6 +491,7 @@ class BookingServiceImplTest {
         long userId = owner.getId();
         long bookingId = booking.getId();
         String error = "Вы не владеете этой вещью";
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         ObjectNotFoundException exception = assertThrows(ObjectNotFoundException.class,
@@ -359,6 +505,7 @@ class BookingServiceImplTest {
         long bookingId = booking.getId();
         String error = String.format("Бронирование с id = %d недоступно", bookingId);
         when(userService.getById(userId)).thenReturn(owner);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
         ValidationException exception = assertThrows(ValidationException.class,
@@ -366,4 +513,65 @@ class BookingServiceImplTest {
         assertEquals(error, exception.getMessage());
     }
 
-}
\ No newline at end of file
+    @Test
+    void approveBookings_ReturnResultForEachIdTest() {
+        long userId = owner.getId();
+        booking.setStatus(BookingStatus.WAITING);
+        Booking approvedBefore = Booking.builder()
+                .id(2L)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        List<Long> ids = List.of(booking.getId(), approvedBefore.getId(), 3L);
+        when(bookingRepository.findItemIdsByIdIn(any())).thenReturn(List.of(item.getId()));
+        when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking, approvedBefore));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(userId, ids, true);
+
+        assertEquals(3, results.size());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(String.format("Бронирование с id = %d недоступно", approvedBefore.getId()),
+                results.get(1).getError());
+        assertEquals("Бронирование с id = 3 не найдено", results.get(2).getError());
+        verify(itemLockManager).lockForTransaction(List.of(item.getId()));
+        verify(bookingRepository).updateStatus(List.of(booking.getId()), BookingStatus.WAITING,
+                BookingStatus.APPROVED);
+        verify(bookingIntervalIndex).update(booking);
+        verify(itemBookingSummaryCache).evict(item.getId());
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+    }
+
+    @Test
+    void approveBookingsWhenNotOwner_ReturnErrorWithoutUpdateTest() {
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdsByIdIn(any())).thenReturn(List.of(item.getId()));
+        when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(user.getId(),
+                List.of(booking.getId()), false);
+
+        assertEquals("Вы не владеете этой вещью", results.get(0).getError());
+        verify(bookingRepository, never()).updateStatus(any(), any(), any());
+    }
+
+    @Test
+    void submitBookingWithWrongDates_ThrowValidationWithoutQueueTest() {
+        when(dateValidator.isCorrectDate(any(), any())).thenReturn(false);
+
+        assertThrows(ValidationException.class, () -> bookingService.submitBooking(booker.getId(), bookingCreateDto));
+        verify(bookingWriteQueue, never()).submit(any(), any());
+    }
+
+    @Test
+    void getBookingRequestOfOtherUser_ThrowNotFoundTest() {
+        when(bookingWriteQueue.get("abc")).thenReturn(Optional.of(
+                new BookingRequestDto("abc", booker.getId(), BookingRequestStatus.PENDING, null, null)));
+
+        assertEquals(BookingRequestStatus.PENDING, bookingService.getBookingRequest(booker.getId(), "abc").getStatus());
+        assertThrows(ObjectNotFoundException.class, () -> bookingService.getBookingRequest(owner.getId(), "abc"));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    private ItemBookingSummaryCache cache;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemBookingSummaryCache(bookingRepository, archivedBookingRepository, 2);
+        booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        item = Item.builder().id(1L).name("item").description("description").available(true).build();
+    }
+
+    @Test
+    void getAllLoadsMissingItemsOnceTest() {
+        Booking last = booking(1L, NOW.minusDays(2), NOW.minusDays(1));
+        Booking next = booking(2L, NOW.plusDays(1), NOW.plusDays(2));
+        when(bookingRepository.findLastBookings(any(), any(), any())).thenReturn(List.of(last));
+        when(bookingRepository.findNextBookings(any(), any(), any())).thenReturn(List.of(next));
+
+        Map<Long, ItemBookingSummary> summaries = cache.getAll(List.of(1L, 3L));
+        ItemBookingSummary cached = cache.get(1L);
+
+        assertEquals(last.getId(), summaries.get(1L).getLastBooking().getId());
+        assertEquals(next.getId(), summaries.get(1L).getNextBooking().getId());
+        assertEquals(booker.getId(), summaries.get(1L).getNextBooking().getBookerId());
+        assertNull(summaries.get(3L).getLastBooking());
+        assertNull(summaries.get(3L).getNextBooking());
+        assertEquals(next.getId(), cached.getNextBooking().getId());
+        assertEquals(next.getStart(), summaries.get(1L).getValidUntil());
+        verify(bookingRepository, times(1)).findLastBookings(any(), any(), any());
+        verify(archivedBookingRepository, times(1)).findLastBookings(eq(List.of(3L)), any(), any());
+    }
+
+    @Test
+    void getReloadsWhenNextBookingStartedOrEvictedTest() {
+        Booking started = booking(1L, NOW.minusDays(1), NOW.plusDays(1));
+        when(bookingRepository.findLastBookings(any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findNextBookings(any(), any(), any())).thenReturn(List.of(started));
+
+        cache.get(1L);
+        cache.get(1L);
+        cache.evict(1L);
+        cache.get(1L);
+
+        verify(bookingRepository, times(3)).findNextBookings(any(), any(), any());
+    }
+
+    @Test
+    void leastRecentlyUsedItemIsEvictedTest() {
+        when(bookingRepository.findLastBookings(any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findNextBookings(any(), any(), any())).thenReturn(List.of());
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+        cache.getAll(List.of(1L, 3L));
+        cache.get(2L);
+
+        verify(bookingRepository, times(4)).findNextBookings(any(), any(), any());
+        verify(bookingRepository, times(2)).findNextBookings(eq(List.of(2L)), any(), any());
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.dashboard.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.dashboard.service.DashboardService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DashboardController.class)
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    void getOwnerDashboard_ReturnAllSectionsTest() throws Exception {
+        when(dashboardService.getOwnerDashboard(1L, 20)).thenReturn(new OwnerDashboardDto(
+                List.of(new ItemOwnerDto(1L, "item", "description", true, null)),
+                List.of(BookingDto.builder().id(2L).build()),
+                Collections.emptyList(),
+                List.of(ItemRequestDto.builder().id(3L).build())));
+
+        mockMvc.perform(get("/dashboard/owner")
+                        .header("X-Sharer-User-Id", 1))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.waitingBookings[0].id", is(2)))
+                .andExpect(jsonPath("$.currentBookings", hasSize(0)))
+                .andExpect(jsonPath("$.requests[0].id", is(3)));
+    }
+
+    @Test
+    void getOwnerDashboardWithUnknownUser_ReturnStatus404Test() throws Exception {
+        when(dashboardService.getOwnerDashboard(99L, 20))
+                .thenThrow(new ObjectNotFoundException("Пользователь с id = 99 не найден"));
+
+        mockMvc.perform(get("/dashboard/owner")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getOwnerDashboardWithWrongSize_ReturnStatus400Test() throws Exception {
+        mockMvc.perform(get("/dashboard/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.dashboard.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.exception.UnsupportedStateException;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceImplTest {
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private ItemService itemService;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private ItemRequestService itemRequestService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardServiceImpl(userService, itemService, bookingService, itemRequestService,
+                transactionManager, 4, 10, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void getOwnerDashboardValidatesUserOnceTest() {
+        ItemOwnerDto item = new ItemOwnerDto(1L, "item", "description", true, null);
+        BookingDto waiting = BookingDto.builder().id(1L).build();
+        BookingDto current = BookingDto.builder().id(2L).build();
+        ItemRequestDto request = ItemRequestDto.builder().id(3L).build();
+        when(itemService.getOwnerItems(1L, 0, 20)).thenReturn(List.of(item));
+        when(bookingService.getOwnerBookings(1L, "WAITING", 20)).thenReturn(List.of(waiting));
+        when(bookingService.getOwnerBookings(1L, "CURRENT", 20)).thenReturn(List.of(current));
+        when(itemRequestService.getRequests(1L, 0, 20)).thenReturn(List.of(request));
+
+        OwnerDashboardDto dashboard = dashboardService.getOwnerDashboard(1L, 20);
+
+        assertEquals(List.of(item), dashboard.getItems());
+        assertEquals(List.of(waiting), dashboard.getWaitingBookings());
+        assertEquals(List.of(current), dashboard.getCurrentBookings());
+        assertEquals(List.of(request), dashboard.getRequests());
+        verify(userService, times(1)).validateUserById(1L);
+    }
+
+    @Test
+    void getOwnerDashboardWithUnknownUserSkipsQueriesTest() {
+        doThrow(new ObjectNotFoundException("Пользователь с id = 99 не найден"))
+                .when(userService).validateUserById(99L);
+
+        assertThrows(ObjectNotFoundException.class, () -> dashboardService.getOwnerDashboard(99L, 20));
+        verifyNoInteractions(itemService, bookingService, itemRequestService);
+    }
+
+    @Test
+    void getOwnerDashboardRethrowsQueryExceptionTest() {
+        when(bookingService.getOwnerBookings(1L, "WAITING", 20))
+                .thenThrow(new UnsupportedStateException("Unknown state: WAITING"));
+
+        assertThrows(UnsupportedStateException.class, () -> dashboardService.getOwnerDashboard(1L, 20));
+    }
+
+    @Test
+    void getOwnerDashboardAfterTimeoutInterruptsQueriesTest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        dashboardService.shutdown();
+        dashboardService = new DashboardServiceImpl(userService, itemService, bookingService, itemRequestService,
+                transactionManager, 4, 10, 50);
+        when(itemService.getOwnerItems(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        try {
+            assertThrows(ServiceOverloadedException.class, () -> dashboardService.getOwnerDashboard(1L, 20));
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+}
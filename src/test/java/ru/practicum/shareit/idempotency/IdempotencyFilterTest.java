@@ -0,0 +1,140 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"item\"}";
+
+    private IdempotencyFilter filter;
+    private AtomicInteger calls;
+    private volatile int status;
+    private volatile CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100, Duration.ofMinutes(1),
+                Clock.systemDefaultZone()), Set.of("/items"), Duration.ofSeconds(10), new ObjectMapper());
+        calls = new AtomicInteger();
+        status = HttpStatus.OK.value();
+    }
+
+    @Test
+    void repeatedRequestReturnsStoredResponseTest() throws Exception {
+        MockHttpServletResponse first = perform("key", BODY);
+        MockHttpServletResponse second = perform("key", BODY);
+
+        assertEquals(1, calls.get());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(HttpStatus.OK.value(), second.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        perform("other", BODY);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void sameKeyWithOtherBodyIsRejectedTest() throws Exception {
+        perform("key", BODY);
+
+        MockHttpServletResponse response = perform("key", "{\"name\":\"other\"}");
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), response.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void serverErrorIsNotStoredTest() throws Exception {
+        status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        perform("key", BODY);
+        status = HttpStatus.OK.value();
+
+        MockHttpServletResponse response = perform("key", BODY);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void requestWithoutKeyIsNotFilteredTest() throws Exception {
+        perform(null, BODY);
+        perform(null, BODY);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstResponseTest() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> perform("key", BODY));
+            while (calls.get() == 0) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            Future<MockHttpServletResponse> second = executor.submit(() -> perform("key", BODY));
+            TimeUnit.MILLISECONDS.sleep(50);
+            release.countDown();
+
+            assertEquals(first.get(10, TimeUnit.SECONDS).getContentAsString(),
+                    second.get(10, TimeUnit.SECONDS).getContentAsString());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletResponse perform(String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.addHeader("X-Sharer-User-Id", 1);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                int call = calls.incrementAndGet();
+                if (release != null) {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                String received = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                resp.setStatus(status);
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getWriter().write("{\"id\":" + call + ",\"request\":" + received + "}");
+            }
+        }));
+        return response;
+    }
+}
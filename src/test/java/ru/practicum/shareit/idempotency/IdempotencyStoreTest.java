@@ -0,0 +1,102 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+class IdempotencyStoreTest {
+
+    private static final IdempotentResponse RESPONSE = new IdempotentResponse("hash", 200, "application/json",
+            "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void inMemoryStoreEvictsLeastRecentlyUsedTest() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, Duration.ofMinutes(1),
+                Clock.systemDefaultZone());
+        store.save("a", RESPONSE);
+        store.save("b", RESPONSE);
+        assertTrue(store.find("a").isPresent());
+
+        store.save("c", RESPONSE);
+
+        assertEquals(2, store.size());
+        assertTrue(store.find("a").isPresent());
+        assertFalse(store.find("b").isPresent());
+        assertTrue(store.find("c").isPresent());
+    }
+
+    @Test
+    void inMemoryStoreExpiresResponsesTest() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, Duration.ZERO, Clock.systemDefaultZone());
+        store.save("a", RESPONSE);
+
+        assertFalse(store.find("a").isPresent());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void jdbcStoreReservesKeyOnceTest() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), Clock.systemDefaultZone());
+
+        assertTrue(store.reserve("a"));
+        assertFalse(store.reserve("a"));
+        assertFalse(store.find("a").isPresent());
+
+        store.save("a", RESPONSE);
+        IdempotentResponse stored = store.find("a").orElseThrow();
+        assertEquals(RESPONSE.getStatus(), stored.getStatus());
+        assertEquals(RESPONSE.getRequestHash(), stored.getRequestHash());
+        assertArrayEquals(RESPONSE.getBody(), stored.getBody());
+
+        assertTrue(store.reserve("b"));
+        store.release("b");
+        assertTrue(store.reserve("b"));
+    }
+
+    @Test
+    void jdbcStoreTakesOverExpiredReservationTest() {
+        Clock clock = Clock.systemDefaultZone();
+        JdbcIdempotencyStore crashed = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1),
+                Duration.ofSeconds(30), clock);
+        JdbcIdempotencyStore later = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1),
+                Duration.ofSeconds(30), Clock.offset(clock, Duration.ofMinutes(1)));
+
+        assertTrue(crashed.reserve("a"));
+        assertFalse(crashed.reserve("a"));
+        assertTrue(later.reserve("a"));
+
+        later.save("a", RESPONSE);
+        JdbcIdempotencyStore muchLater = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1),
+                Duration.ofSeconds(30), Clock.offset(clock, Duration.ofMinutes(30)));
+        assertTrue(muchLater.find("a").isPresent());
+        assertFalse(muchLater.reserve("a"));
+    }
+
+    @Test
+    void jdbcStoreDeletesExpiredKeysTest() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, Duration.ZERO, Duration.ZERO,
+                Clock.systemDefaultZone());
+        assertTrue(store.reserve("a"));
+        store.save("a", RESPONSE);
+
+        assertFalse(store.find("a").isPresent());
+        assertTrue(store.reserve("a"));
+        store.deleteExpired();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+}
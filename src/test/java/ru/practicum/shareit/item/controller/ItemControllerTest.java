@@ -12,8 +12,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -103,6 +106,24 @@ class ItemControllerTest {
                 .andExpect(content().json(json));
     }
 
+    @Test
+    void getItemAvailability_ReturnStatus200Test() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to,
+                List.of(new AvailabilitySlotDto(from, to, true, null)));
+        when(itemService.getItemAvailability(1L, 1L, from, to)).thenReturn(availability);
+        mockMvc.perform(get(url + "/1/availability")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.slots", hasSize(1)))
+                .andExpect(jsonPath("$.slots[0].free", is(true)));
+    }
+
     @Test
     void getItemByIdWhenNotExistingUserId_ReturnStatus404Test() throws Exception {
         when(itemService.getItemById(999L, 1L))
@@ -136,6 +157,25 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    void suggest_ReturnStatus200AndSuggestionsTest() throws Exception {
+        when(itemService.getSuggestions("дре", 5)).thenReturn(List.of(new ItemSuggestionDto("Дрель", 3)));
+        mockMvc.perform(get(url + "/suggest").param("prefix", "дре").param("limit", "5"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Дрель")))
+                .andExpect(jsonPath("$[0].count", is(3)));
+    }
+
+    @Test
+    void suggestIfLimitTooLarge_ReturnStatus400Test() throws Exception {
+        mockMvc.perform(get(url + "/suggest").param("prefix", "дре").param("limit", "51"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].code", is(400)));
+    }
+
     @Test
     void searchItemIfFromNegative_ReturnStatus400Test() throws Exception {
         mockMvc.perform(get(url + "/search").param("from", "-1"))
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -14,9 +18,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.persistence.Query;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @DataJpaTest
 public class ItemRepositoryTest {
@@ -146,6 +153,25 @@ public class ItemRepositoryTest {
         assertEquals(2, itemsSearch.size());
     }
 
+    @Test
+    void searchTreatsWildcardsAsPlainCharactersTest() {
+        Item wildcard = itemRepository.save(Item.builder()
+                .name("drill_2")
+                .description("sale 50%")
+                .available(true)
+                .owner(owner)
+                .build());
+        PageRequest page = PageRequest.of(0, 10);
+
+        assertEquals(List.of(wildcard.getId()), itemRepository.searchIds("_", page));
+        assertEquals(List.of(wildcard.getId()), itemRepository.searchIds("l_2", page));
+        assertEquals(List.of(wildcard.getId()), itemRepository.searchIds("50%", page));
+        assertEquals(0, itemRepository.searchIds("dr_ll", page).size());
+        assertEquals(0, itemRepository.searchItemDtos("name_tem", page).size());
+        assertEquals(0, itemRepository.search("%ion%", page).size());
+        assertEquals(1, itemRepository.search("Item", page).size());
+    }
+
     @Test
     void findByRequestId_ReturnEmptyListTest() {
         List<Item> items = itemRepository.findAllByRequest_IdOrderByRequestDesc(0L);
@@ -175,4 +201,74 @@ public class ItemRepositoryTest {
         assertEquals(1, items.size());
         assertEquals(item.getId(), items.get(0).getId());
     }
+
+    @Test
+    void findItemOwnerDtosByOwnerId_ReturnDtoWithRequestIdTest() {
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<ItemOwnerDto> items = itemRepository.findItemOwnerDtosByOwnerId(owner.getId(), PAGE);
+
+        assertEquals(1, items.size());
+        assertEquals(item.getId(), items.get(0).getId());
+        assertEquals(item.getName(), items.get(0).getName());
+        assertEquals(itemRequest.getId(), items.get(0).getRequestId());
+        assertEquals(0, testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void searchItemDtos_ReturnSameItemsAsSearchTest() {
+        Item item1 = itemRepository.save(Item.builder()
+                .name("testingItem")
+                .description("descriptionTesting")
+                .available(true)
+                .owner(owner)
+                .build());
+        PageRequest page = PageRequest.of(0, 2);
+
+        List<ItemDto> items = itemRepository.searchItemDtos("item", page);
+
+        assertEquals(itemRepository.search("item", page).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()), items);
+        assertNull(items.get(1).getRequestId());
+        assertEquals(item1.getId(), items.get(1).getId());
+    }
+
+    @Test
+    void findAvailableItemDtosByIdIn_SkipUnavailableAndOrderByIdTest() {
+        Item hidden = itemRepository.save(Item.builder()
+                .name("hiddenItem")
+                .description("descriptionHidden")
+                .available(false)
+                .owner(owner)
+                .build());
+        Item second = itemRepository.save(Item.builder()
+                .name("secondItem")
+                .description("descriptionSecond")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        List<ItemDto> items = itemRepository.findAvailableItemDtosByIdIn(List.of(second.getId(), hidden.getId(),
+                item.getId()));
+
+        assertEquals(List.of(item.getId(), second.getId()), items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamAvailableItemDtos_ReturnOnlyAvailableTest() {
+        itemRepository.save(Item.builder()
+                .name("hiddenItem")
+                .description("descriptionHidden")
+                .available(false)
+                .owner(owner)
+                .build());
+
+        try (Stream<ItemDto> items = itemRepository.streamAvailableItemDtos()) {
+            assertEquals(List.of(item.getId()), items.map(ItemDto::getId).collect(Collectors.toList()));
+        }
+    }
 }
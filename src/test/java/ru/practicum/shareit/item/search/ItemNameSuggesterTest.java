@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameSuggesterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemNameSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ItemNameSuggester(itemRepository, 1_000_000);
+    }
+
+    @Test
+    void suggestReturnsMostPopularNamesWithPrefixTest() {
+        load(List.of(
+                item(1L, "Дрель"), item(2L, "дрель"), item(3L, "Дрель ударная"),
+                item(4L, "Дрель ударная"), item(5L, "Дрель ударная"), item(6L, "Дрезина"),
+                item(7L, "Палатка")));
+
+        List<ItemSuggestionDto> suggestions = suggester.suggest("ДРЕ", 10);
+
+        assertEquals(List.of("Дрель ударная", "Дрель", "Дрезина"), names(suggestions));
+        assertEquals(List.of(3, 2, 1), suggestions.stream()
+                .map(ItemSuggestionDto::getCount)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("Дрель ударная"), names(suggester.suggest("дрель у", 10)));
+        assertEquals(List.of("Дрель ударная", "Дрель"), names(suggester.suggest("дрель", 2)));
+        assertTrue(suggester.suggest("дрож", 10).isEmpty());
+        assertTrue(suggester.suggest("дрель ударная дорогая", 10).isEmpty());
+    }
+
+    @Test
+    void indexMovesRenamedAndRemovesUnavailableItemsTest() {
+        load(List.of(item(1L, "Дрель"), item(2L, "Дрезина"), item(3L, "Палатка")));
+
+        suggester.index(Item.builder().id(1L).name("Пила").available(true).build());
+        suggester.index(Item.builder().id(2L).name("Дрезина").available(false).build());
+
+        assertTrue(suggester.suggest("др", 10).isEmpty());
+        assertEquals(List.of("Палатка", "Пила"), names(suggester.suggest("п", 10)).stream()
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(2, suggester.getNames());
+    }
+
+    @Test
+    void removingAllNamesReleasesNodesTest() {
+        load(List.of());
+        long empty = suggester.getEstimatedBytes();
+
+        suggester.index(Item.builder().id(1L).name("Дрель").available(true).build());
+        suggester.index(Item.builder().id(2L).name("Дрезина").available(true).build());
+        suggester.index(Item.builder().id(3L).name("Дре").available(true).build());
+        assertEquals(3, suggester.getNodes());
+        suggester.index(Item.builder().id(1L).name("Дрель").available(false).build());
+        suggester.index(Item.builder().id(2L).name("Дрезина").available(false).build());
+        suggester.index(Item.builder().id(3L).name("Дре").available(false).build());
+
+        assertEquals(0, suggester.getNodes());
+        assertEquals(empty, suggester.getEstimatedBytes());
+    }
+
+    @Test
+    void namesOverBudgetAreRejectedTest() {
+        suggester = new ItemNameSuggester(itemRepository, 300);
+        load(List.of(item(1L, "Дрель"), item(2L, "Палатка"), item(3L, "Велосипед"), item(4L, "Дрель")));
+
+        assertEquals(1, suggester.getNames());
+        assertEquals(2, suggester.getRejected());
+        assertTrue(suggester.getEstimatedBytes() <= suggester.getMaxBytes());
+        assertEquals(2, suggester.suggest("дрель", 10).get(0).getCount());
+    }
+
+    private void load(List<ItemDto> loaded) {
+        when(itemRepository.streamAvailableItemDtos()).thenReturn(loaded.stream());
+        suggester.rebuild();
+    }
+
+    private static List<String> names(List<ItemSuggestionDto> suggestions) {
+        return suggestions.stream()
+                .map(ItemSuggestionDto::getName)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemDto item(Long id, String name) {
+        return new ItemDto(id, name, "описание", true, null);
+    }
+}
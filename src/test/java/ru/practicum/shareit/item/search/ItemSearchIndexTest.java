@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    private static final String[] WORDS = {"дрель", "аккумуляторная", "Отвёртка", "drill", "saw", "пила", "x2",
+            "Дрель-шуруповёрт", "ударная", "SAW-blade"};
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+    private List<ItemDto> items;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository);
+        Random random = new Random(42);
+        items = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            items.add(new ItemDto(id, phrase(random, 1 + random.nextInt(3)), phrase(random, random.nextInt(5)),
+                    true, null));
+        }
+    }
+
+    @Test
+    void searchMatchesLikeSemanticsTest() {
+        load(items);
+
+        for (String query : List.of("дрель", "ДРЕЛ", "рель аккум", "ль-шуруп", "saw-b", "w bl", "ная дрель", "x2 ",
+                " пила", "-", "zzz", "ёр")) {
+            assertEquals(like(items, query), index.search(query, 0, Integer.MAX_VALUE), query);
+        }
+    }
+
+    @Test
+    void searchTreatsWildcardsAsPlainCharactersTest() {
+        List<ItemDto> wildcards = List.of(new ItemDto(1L, "Дрель_2", "скидка 50%", true, null),
+                new ItemDto(2L, "Дрель 2", "скидка 50 рублей", true, null),
+                new ItemDto(3L, "Пилa", "ленточная", true, null));
+        load(wildcards);
+
+        for (String query : List.of("_", "ль_", "_2", "%", "50%", "дрель_2", "л_", "_%")) {
+            assertEquals(like(wildcards, query), index.search(query, 0, 10), query);
+        }
+        assertEquals(List.of(1L), index.search("ль_", 0, 10));
+    }
+
+    @Test
+    void searchMatchesWordPrefixesFromSortedDictionaryTest() {
+        load(List.of(new ItemDto(1L, "Ручная пила", "", true, null), new ItemDto(2L, "Ручная пилка", "", true, null),
+                new ItemDto(3L, "Ручная пика", "", true, null), new ItemDto(4L, "Ручная пилорама", "", true, null),
+                new ItemDto(5L, "Пила", "ручная", true, null)));
+
+        assertEquals(List.of(1L, 2L, 4L), index.search("ручная пил", 0, 10));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search("ручная пи", 0, 10));
+        assertTrue(index.search("ручная пилы", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchDoesNotMatchAcrossNameAndDescriptionTest() {
+        load(List.of(new ItemDto(1L, "Дрель", "ударная", true, null)));
+
+        assertTrue(index.search("дрель ударная", 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("удар", 0, 10));
+    }
+
+    @Test
+    void searchReturnsPageInIdOrderTest() {
+        load(items);
+        List<Long> all = like(items, "а");
+
+        assertEquals(all.subList(10, 20), index.search("а", 10, 10));
+        assertTrue(index.search("а", all.size(), 10).isEmpty());
+    }
+
+    @Test
+    void indexUpdatesAndRemovesUnavailableItemsTest() {
+        load(List.of(new ItemDto(1L, "Дрель", "ударная", true, null)));
+
+        index.index(Item.builder().id(1L).name("Пила").description("ручная").available(true).build());
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("пил", 0, 10));
+
+        index.index(Item.builder().id(2L).name("Пила цепная").description("").available(true).build());
+        assertEquals(List.of(1L, 2L), index.search("пила", 0, 10));
+
+        index.index(Item.builder().id(1L).name("Пила").description("ручная").available(false).build());
+        assertEquals(List.of(2L), index.search("пила", 0, 10));
+        assertEquals(1, index.getDocuments());
+        assertEquals(2, index.getTokens());
+    }
+
+    @Test
+    void indexIsNotReadyBeforeLoadTest() {
+        assertFalse(index.isReady());
+        load(List.of());
+        assertTrue(index.isReady());
+    }
+
+    private void load(List<ItemDto> loaded) {
+        when(itemRepository.streamAvailableItemDtos()).thenReturn(loaded.stream());
+        index.rebuild();
+    }
+
+    private static List<Long> like(List<ItemDto> items, String query) {
+        String folded = query.toUpperCase(Locale.ROOT);
+        return items.stream()
+                .filter(item -> item.getName().toUpperCase(Locale.ROOT).contains(folded)
+                        || item.getDescription().toUpperCase(Locale.ROOT).contains(folded))
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static String phrase(Random random, int words) {
+        return Stream.generate(() -> WORDS[random.nextInt(WORDS.length)])
+                .limit(words)
+                .collect(Collectors.joining(" "));
+    }
+}
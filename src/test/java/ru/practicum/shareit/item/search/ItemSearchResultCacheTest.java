@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<Long>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(1L, 2L);
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getIgnoresCaseOfQueryTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+
+        cache.get("Дрель", 0, 10, loader);
+        cache.get("дРЕЛЬ", 0, 10, loader);
+        cache.get("дрель", 10, 10, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsedTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(2);
+
+        cache.get("дрель", 0, 10, loader);
+        cache.get("пила", 0, 10, loader);
+        cache.get("дрель", 0, 10, loader);
+        cache.get("палатка", 0, 10, loader);
+        cache.get("дрель", 0, 10, loader);
+        cache.get("пила", 0, 10, loader);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void evictRemovesOnlyQueriesMatchingItemTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+        cache.get("дрель", 0, 10, loader);
+        cache.get("дрель", 10, 10, loader);
+        cache.get("ударная", 0, 10, loader);
+        cache.get("палатка", 0, 10, loader);
+        cache.get("пил_", 0, 10, loader);
+
+        cache.evict(null, item("Дрель", "Мощная, ударная", true));
+
+        assertEquals(2, cache.getSize());
+        assertEquals(3, cache.getInvalidations());
+        cache.get("палатка", 0, 10, loader);
+        assertEquals(5, loads.get());
+
+        cache.evict(null, item("Пил_а", "", true));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void evictRemovesQueriesMatchingPreviousTextTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+        Item item = item("Дрель", "Мощная", true);
+        cache.get("дрель", 0, 10, loader);
+        cache.get("палатка", 0, 10, loader);
+        String previousText = ItemSearchResultCache.searchText(item);
+
+        item.setName("Перфоратор");
+        cache.evict(previousText, item);
+
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void evictUnavailableNewItemKeepsEverythingTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+        cache.get("пил_", 0, 10, loader);
+
+        cache.evict(null, item("Пила", "Ручная", false));
+
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void loadOverlappingEvictionIsNotCachedTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+
+        cache.get("дрель", 0, 10, () -> {
+            cache.evict(null, item("Палатка", "Двухместная", true));
+            return List.of(1L);
+        });
+
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void evictInTransactionRepeatsAfterCompletionTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(null, item("Дрель", "Мощная", true));
+        cache.get("дрель", 0, 10, loader);
+        assertEquals(1, cache.getSize());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void evictAllInTransactionClearsNowAndAfterCompletionTest() {
+        ItemSearchResultCache cache = new ItemSearchResultCache(10);
+        cache.get("палатка", 0, 10, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAll();
+        assertEquals(0, cache.getSize());
+        cache.get("дрель", 0, 10, loader);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(0, cache.getSize());
+    }
+
+    private Item item(String name, String description, boolean available) {
+        return Item.builder()
+                .id(1L)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneItemSearchEngineTest {
+
+    private static final List<ItemDto> ITEMS = List.of(
+            new ItemDto(1L, "Перфоратор", "с дрелью в комплекте", true, null),
+            new ItemDto(2L, "Дрель", "ударная", true, null),
+            new ItemDto(3L, "Дрель-шуруповёрт", "аккумуляторная", true, null),
+            new ItemDto(4L, "Лестница", "алюминиевая, три секции", true, null),
+            new ItemDto(5L, "Палатка", "трёхместная", true, null));
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private LuceneItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new LuceneItemSearchEngine(itemRepository, directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.close();
+    }
+
+    @Test
+    void searchRanksNameAboveDescriptionTest() {
+        load(ITEMS);
+
+        assertEquals(List.of(2L, 3L, 1L), engine.search("ДРЕЛЬ", 0, 10));
+        assertEquals(List.of(3L), engine.search("дрель аккумуляторная", 0, 10));
+    }
+
+    @Test
+    void searchMatchesPrefixesAndTyposTest() {
+        load(ITEMS);
+
+        assertEquals(List.of(4L), engine.search("лест", 0, 10));
+        assertEquals(List.of(1L), engine.search("перфаратор", 0, 10));
+        assertEquals(List.of(5L), engine.search("палтка", 0, 10));
+        assertTrue(engine.search("пал", 0, 10).contains(5L));
+        assertTrue(engine.search("-", 0, 10).isEmpty());
+        assertTrue(engine.search("zzz", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchReturnsPageByRelevanceTest() {
+        load(ITEMS);
+
+        assertEquals(List.of(3L, 1L), engine.search("дрель", 1, 10));
+        assertEquals(List.of(3L), engine.search("дрель", 1, 1));
+        assertTrue(engine.search("дрель", 3, 10).isEmpty());
+    }
+
+    @Test
+    void indexedChangesAreVisibleWithoutRebuildTest() {
+        load(ITEMS);
+
+        engine.index(Item.builder().id(4L).name("Стремянка").description("три ступени").available(true).build());
+        assertTrue(engine.search("лестница", 0, 10).isEmpty());
+        assertEquals(List.of(4L), engine.search("стремянка", 0, 10));
+
+        engine.index(Item.builder().id(6L).name("Палатка туристическая").description("").available(true).build());
+        engine.index(Item.builder().id(5L).name("Палатка").description("трёхместная").available(false).build());
+        assertEquals(List.of(6L), engine.search("палатка", 0, 10));
+        assertEquals(5, engine.getDocuments());
+    }
+
+    @Test
+    void rebuildReplacesIndexOnDiskTest() throws IOException {
+        load(ITEMS);
+        load(List.of(new ItemDto(7L, "Самокат", "", true, null)));
+        engine.close();
+
+        engine = new LuceneItemSearchEngine(itemRepository, directory);
+        assertFalse(engine.isReady());
+        assertEquals(1, engine.getDocuments());
+        assertEquals(List.of(7L), engine.search("самокат", 0, 10));
+        assertTrue(engine.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void engineIsNotReadyBeforeRebuildTest() {
+        assertFalse(engine.isReady());
+        assertFalse(engine.matchesSubstrings());
+        load(List.of());
+        assertTrue(engine.isReady());
+    }
+
+    private void load(List<ItemDto> loaded) {
+        when(itemRepository.streamAvailableItemDtos()).thenReturn(loaded.stream());
+        engine.rebuild();
+    }
+}
@@ -5,26 +5,40 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryCache;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchResultCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +56,18 @@ class ItemServiceImplTest {
     CommentRepository commentRepository;
     @Mock
     UserService userService;
+    @Mock
+    BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    ItemBookingSummaryCache itemBookingSummaryCache;
+    @Mock
+    ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    ItemNameSuggester itemNameSuggester;
+    @Spy
+    ItemSearchResultCache itemSearchResultCache = new ItemSearchResultCache(100);
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -96,7 +122,7 @@ class ItemServiceImplTest {
     @Test
     void getAllItemsByUserId_ReturnEmptyListTest() {
         long userId = booker.getId();
-        when(itemRepository.findAllByOwnerId(any(), any())).thenReturn(Collections.emptyList());
+        when(itemRepository.findItemOwnerDtosByOwnerId(any(), any())).thenReturn(Collections.emptyList());
 
         List<ItemOwnerDto> itemDtos = itemService.getAllItemsByUserId(userId, 0, 1);
 
@@ -107,9 +133,11 @@ class ItemServiceImplTest {
     @Test
     void getAllItemsByUserId_ReturnListItemsTest() {
         long userId = owner.getId();
-        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by("id"));
-        when(itemRepository.findAllByOwnerId(userId, pageRequest)).thenReturn(List.of(item));
-        when(bookingRepository.findBookingsByItemIn(List.of(item))).thenReturn(List.of(booking));
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        when(itemRepository.findItemOwnerDtosByOwnerId(userId, pageRequest))
+                .thenReturn(List.of(ItemMapper.toItemOwnerDto(item)));
+        when(itemBookingSummaryCache.getAll(List.of(item.getId()))).thenReturn(Map.of(item.getId(),
+                new ItemBookingSummary(BookingItemDto.builder().id(booking.getId()).build(), null, null)));
 
         List<ItemOwnerDto> itemOwnerDtos = itemService.getAllItemsByUserId(userId, 0, 1);
 
@@ -123,7 +151,8 @@ class ItemServiceImplTest {
         long ownerId = owner.getId();
         long itemId = item.getId();
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findBookingsByItem_Id(itemId)).thenReturn(List.of(booking));
+        when(itemBookingSummaryCache.get(itemId)).thenReturn(new ItemBookingSummary(null,
+                BookingItemDto.builder().id(booking.getId()).build(), booking.getStart()));
         when(commentRepository.findCommentsByItem_Id(itemId)).thenReturn(List.of(comment));
 
         ItemOwnerDto itemOwnerDto = itemService.getItemById(ownerId, itemId);
@@ -131,11 +160,25 @@ class ItemServiceImplTest {
         assertNotNull(itemOwnerDto);
         assertEquals(itemId, itemOwnerDto.getId());
         assertEquals(comment.getId(), itemOwnerDto.getComments().get(0).getId());
+        assertEquals(booking.getId(), itemOwnerDto.getNextBooking().getId());
+    }
+
+    @Test
+    void getItemByIdWhenNotOwner_ReturnItemWithoutBookingsTest() {
+        long itemId = item.getId();
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(commentRepository.findCommentsByItem_Id(itemId)).thenReturn(List.of());
+
+        ItemOwnerDto itemOwnerDto = itemService.getItemById(booker.getId(), itemId);
+
+        assertNull(itemOwnerDto.getLastBooking());
+        assertNull(itemOwnerDto.getNextBooking());
+        verify(itemBookingSummaryCache, never()).get(any());
     }
 
     @Test
     void getSearchItem_ReturnListItemsTest() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item));
+        when(itemRepository.searchItemDtos(any(), any())).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
         List<ItemDto> itemDtos = itemService.getSearchItem("nameItem", 0, 1);
 
@@ -144,6 +187,55 @@ class ItemServiceImplTest {
         assertEquals(item.getId(), itemDtos.get(0).getId());
     }
 
+    @Test
+    void getSearchItemFromIndex_HydrateOnlyPageTest() {
+        when(itemSearchEngine.isReady()).thenReturn(true);
+        when(itemSearchEngine.search("nameItem", 10, 5)).thenReturn(List.of(item.getId()));
+        when(itemRepository.findAvailableItemDtosByIdIn(List.of(item.getId())))
+                .thenReturn(List.of(ItemMapper.toItemDto(item)));
+
+        List<ItemDto> itemDtos = itemService.getSearchItem("nameItem", 12, 5);
+        itemService.getSearchItem("NAMEITEM", 10, 5);
+
+        assertEquals(item.getId(), itemDtos.get(0).getId());
+        verify(itemRepository, never()).searchItemDtos(any(), any());
+        verify(itemSearchEngine, times(1)).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getSearchItemFromIndex_KeepEngineOrderTest() {
+        ItemDto first = ItemDto.builder().id(1L).name("Дрель").build();
+        ItemDto second = ItemDto.builder().id(2L).name("Дрель ударная").build();
+        ItemDto third = ItemDto.builder().id(3L).name("Дрель аккумуляторная").build();
+        when(itemSearchEngine.isReady()).thenReturn(true);
+        when(itemSearchEngine.search("дрель", 0, 10)).thenReturn(List.of(3L, 1L, 4L, 2L));
+        when(itemRepository.findAvailableItemDtosByIdIn(List.of(3L, 1L, 4L, 2L)))
+                .thenReturn(List.of(first, second, third));
+
+        List<ItemDto> itemDtos = itemService.getSearchItem("дрель", 0, 10);
+
+        assertEquals(List.of(third, first, second), itemDtos);
+    }
+
+    @Test
+    void getSuggestions_ReturnSuggestionsFromSuggesterTest() {
+        when(itemNameSuggester.isReady()).thenReturn(true);
+        when(itemNameSuggester.suggest("дре", 5)).thenReturn(List.of(new ItemSuggestionDto("Дрель", 3)));
+
+        List<ItemSuggestionDto> suggestions = itemService.getSuggestions("дре", 5);
+
+        assertEquals("Дрель", suggestions.get(0).getName());
+        assertEquals(3, suggestions.get(0).getCount());
+    }
+
+    @Test
+    void getSuggestions_ReturnEmptyListWhileNotReadyTest() {
+        when(itemNameSuggester.isReady()).thenReturn(false);
+
+        assertTrue(itemService.getSuggestions("дре", 5).isEmpty());
+        verify(itemNameSuggester, never()).suggest(any(), anyInt());
+    }
+
     @Test
     void getSearchItem_ReturnEmptyListTest() {
         List<ItemDto> itemDtos = itemService.getSearchItem("", 0, 1);
@@ -157,6 +249,7 @@ class ItemServiceImplTest {
         long userId = owner.getId();
         long itemId = item.getId();
         when(itemRepository.save(any())).thenReturn(item);
+        when(itemSearchEngine.matchesSubstrings()).thenReturn(true);
 
         ItemDto saveItemDto = ItemDto.builder()
                 .name(item.getName())
@@ -167,6 +260,20 @@ class ItemServiceImplTest {
         assertNotNull(itemDto);
         assertEquals(itemId, itemDto.getId());
         verify(itemRepository, times(1)).save(any());
+        verify(itemSearchEngine).index(item);
+        verify(itemSearchResultCache).evict(null, item);
+        verify(itemNameSuggester).index(item);
+    }
+
+    @Test
+    void saveItem_EvictWholeSearchCacheForFullTextEngineTest() {
+        when(itemRepository.save(any())).thenReturn(item);
+        when(itemSearchEngine.matchesSubstrings()).thenReturn(false);
+
+        itemService.createItem(owner.getId(), ItemDto.builder().name(item.getName()).build());
+
+        verify(itemSearchResultCache).evictAll();
+        verify(itemSearchResultCache, never()).evict(any(), any());
     }
 
     @Test
@@ -224,4 +331,58 @@ class ItemServiceImplTest {
 
         assertEquals(error, exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailability_ReturnFreeAndOccupiedSlotsTest() {
+        long itemId = item.getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingIntervalIndex.findOverlaps(itemId, from, to)).thenReturn(List.of(
+                new BookingInterval(1L, from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED),
+                new BookingInterval(2L, from.plusDays(3), from.plusDays(4), BookingStatus.WAITING),
+                new BookingInterval(3L, from.plusDays(9), to.plusDays(1), BookingStatus.APPROVED)));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(owner.getId(), itemId, from, to);
+
+        List<AvailabilitySlotDto> slots = availability.getSlots();
+        assertEquals(5, slots.size());
+        assertSlot(slots.get(0), from, from.plusDays(1), false, BookingStatus.APPROVED);
+        assertSlot(slots.get(1), from.plusDays(1), from.plusDays(3), true, null);
+        assertSlot(slots.get(2), from.plusDays(3), from.plusDays(4), false, BookingStatus.WAITING);
+        assertSlot(slots.get(3), from.plusDays(4), from.plusDays(9), true, null);
+        assertSlot(slots.get(4), from.plusDays(9), to, false, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void getItemAvailabilityWhenNoBookings_ReturnSingleFreeSlotTest() {
+        long itemId = item.getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingIntervalIndex.findOverlaps(itemId, from, to)).thenReturn(Collections.emptyList());
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(owner.getId(), itemId, from, to);
+
+        assertEquals(1, availability.getSlots().size());
+        assertSlot(availability.getSlots().get(0), from, to, true, null);
+    }
+
+    @Test
+    void getItemAvailabilityWhenWrongInterval_ReturnValidationExceptionTest() {
+        long itemId = item.getId();
+        LocalDateTime to = LocalDateTime.now().minusDays(1);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(owner.getId(), itemId, to.minusDays(1), to));
+    }
+
+    private void assertSlot(AvailabilitySlotDto slot, LocalDateTime start, LocalDateTime end, boolean free,
+                            BookingStatus status) {
+        assertEquals(start, slot.getStart());
+        assertEquals(end, slot.getEnd());
+        assertEquals(free, slot.isFree());
+        assertEquals(status, slot.getStatus());
+    }
+}